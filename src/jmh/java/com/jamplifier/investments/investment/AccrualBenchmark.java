@@ -0,0 +1,91 @@
+package com.jamplifier.investments.investment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One interest round over a synthetic population, as InterestService does
+ * it: PERIODIC accrues one interval on every profile, LAZY settles every
+ * profile one interval later. Profiles hold {@code perProfile} investments
+ * each, so the total investment count is {@code investments}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccrualBenchmark {
+
+    private static final long INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Param({"1000", "10000", "100000"})
+    public int investments;
+
+    @Param({"5"})
+    public int perProfile;
+
+    private InvestmentProfile[] profiles;
+    private AccrualRate rate;
+    private RateTimeline timeline;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 1% per second over a 10 minute interval, as in the default config
+        rate = AccrualRate.of(BigDecimal.ONE.multiply(BigDecimal.valueOf(600)));
+        timeline = RateTimeline.constant(rate);
+
+        Random random = new Random(42L);
+        int count = Math.max(1, investments / perProfile);
+        profiles = new InvestmentProfile[count];
+        for (int i = 0; i < count; i++) {
+            InvestmentProfile profile = new InvestmentProfile(new UUID(0L, i));
+            for (int j = 0; j < perProfile; j++) {
+                // 10k .. 10M with cents, like real deposits
+                profile.addInvestment(BigDecimal.valueOf(1_000_000L + random.nextInt(1_000_000_000), 2));
+            }
+            profiles[i] = profile;
+        }
+
+        now = 1L;
+        for (InvestmentProfile profile : profiles) {
+            profile.resumeAccrual(now);
+        }
+    }
+
+    @Benchmark
+    public long periodicRound() {
+        long earned = 0L;
+        for (InvestmentProfile profile : profiles) {
+            earned += profile.accrue(rate);
+        }
+        return earned;
+    }
+
+    @Benchmark
+    public long lazyRound() {
+        // every call is one interval after the last, so each profile settles exactly once
+        now += INTERVAL_MILLIS;
+        long earned = 0L;
+        for (InvestmentProfile profile : profiles) {
+            earned += profile.settle(timeline, INTERVAL_MILLIS, now);
+        }
+        return earned;
+    }
+}
@@ -0,0 +1,65 @@
+package com.jamplifier.investments.investment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InvestmentProfile totals as menus and placeholders read them: unchanged
+ * (cached) reads, and a read right after the profile earned interest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileTotalsBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int investments;
+
+    private InvestmentProfile profile;
+    private AccrualRate rate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        profile = new InvestmentProfile(new UUID(0L, 1L));
+        for (int i = 0; i < investments; i++) {
+            profile.addInvestment(BigDecimal.valueOf(12_345_67L + i, 2));
+        }
+        rate = AccrualRate.of(new BigDecimal("0.01"));
+    }
+
+    @Benchmark
+    public void readTotals(Blackhole bh) {
+        bh.consume(profile.getTotalInvested());
+        bh.consume(profile.getTotalProfit());
+    }
+
+    @Benchmark
+    public void readTotalsMicros(Blackhole bh) {
+        bh.consume(profile.getTotalInvestedMicros());
+        bh.consume(profile.getTotalProfitMicros());
+    }
+
+    @Benchmark
+    public void accrueThenRead(Blackhole bh) {
+        bh.consume(profile.accrue(rate));
+        bh.consume(profile.getTotalProfit());
+    }
+}
@@ -0,0 +1,416 @@
+package com.jamplifier.investments.storage;
+
+import com.jamplifier.investments.investment.AccrualRate;
+import com.jamplifier.investments.investment.Investment;
+import com.jamplifier.investments.investment.InvestmentProfile;
+import com.jamplifier.investments.storage.mongo.MongoInvestmentStorage;
+import com.jamplifier.investments.storage.sql.SqlInvestmentStorage;
+import com.jamplifier.investments.storage.sql.SqliteInvestmentStorage;
+import com.jamplifier.investments.util.MoneyUnits;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs the same scenarios against every {@link InvestmentStorage} backend:
+ * bulk save, cold load, totals, hot save and delete. Prints p50/p99 latency
+ * and throughput per scenario, and checks after every step that what comes
+ * back is exactly what was written, to the micro. Exits with 1 if any
+ * backend broke that contract.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec@storage-contract
+ * mvn -Pbenchmarks test-compile exec:exec@storage-contract -Dstorage.args="-Dstorage.profiles=10000"
+ * </pre>
+ *
+ * System properties, passed through {@code storage.args}:
+ * <ul>
+ *   <li>{@code storage.backends}: comma list of sqlite, mysql, mongo (default: all)</li>
+ *   <li>{@code storage.profiles}, {@code storage.per-profile}, {@code storage.batch}:
+ *       1000 profiles of 3 investments, saved 500 at a time</li>
+ *   <li>{@code storage.mysql.url}, {@code .user}, {@code .password}: JDBC URL of a local
+ *       MySQL/MariaDB; without a url the MySQL backend is skipped</li>
+ *   <li>{@code storage.mongo.uri}, {@code storage.mongo.database}: a local mongod;
+ *       without a uri the Mongo backend is skipped</li>
+ * </ul>
+ *
+ * Profiles get random UUIDs and are deleted again by the last scenario, so
+ * pointing it at a real database leaves at most empty Mongo documents behind.
+ */
+public final class StorageContract {
+
+    private static final Logger LOGGER = Logger.getLogger("Investments");
+
+    private static final AccrualRate RATE = AccrualRate.of(BigDecimal.ONE);
+
+    // a few rows near the top of what the leaderboard ever sees, to catch narrow columns
+    private static final BigDecimal LARGE_AMOUNT = new BigDecimal("1000000000000.00");
+
+    private static final int MAX_REPORTED_FAILURES = 20;
+
+    private StorageContract() {
+    }
+
+    private static final class Backend {
+        private final String name;
+        private final boolean rowIds;
+        private final Supplier<InvestmentStorage> factory;
+
+        private Backend(String name, boolean rowIds, Supplier<InvestmentStorage> factory) {
+            this.name = name;
+            this.rowIds = rowIds;
+            this.factory = factory;
+        }
+    }
+
+    /** Nanosecond samples of one scenario. */
+    private static final class Latencies {
+        private final String scenario;
+        private final long[] samples;
+        private int count;
+        private long totalNanos;
+        private int operations;
+
+        private Latencies(String scenario, int capacity) {
+            this.scenario = scenario;
+            this.samples = new long[capacity];
+        }
+
+        /** One timed call that handled {@code ops} profiles. */
+        void add(long nanos, int ops) {
+            samples[count++] = nanos;
+            totalNanos += nanos;
+            operations += ops;
+        }
+
+        void print() {
+            if (count == 0) {
+                return;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            double perSecond = totalNanos > 0 ? operations * 1_000_000_000.0D / totalNanos : 0.0D;
+            System.out.printf("  %-12s %8d %12s %12s %14.0f profiles/s%n",
+                    scenario, count, millis(percentile(sorted, 0.50D)), millis(percentile(sorted, 0.99D)), perSecond);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.3f ms", nanos / 1_000_000.0D);
+        }
+    }
+
+    /** One backend's run: the storage, the live profiles it should mirror, and what went wrong. */
+    private static final class Run {
+        private final Backend backend;
+        private final InvestmentStorage storage;
+        private final List<InvestmentProfile> profiles = new ArrayList<>();
+        private final List<String> failures = new ArrayList<>();
+        private final List<Latencies> results = new ArrayList<>();
+
+        private Run(Backend backend, InvestmentStorage storage) {
+            this.backend = backend;
+            this.storage = storage;
+        }
+
+        void fail(String message) {
+            failures.add(message);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int profiles = Integer.getInteger("storage.profiles", 1000);
+        int perProfile = Integer.getInteger("storage.per-profile", 3);
+        int batch = Math.max(1, Integer.getInteger("storage.batch", 500));
+        List<String> wanted = Arrays.asList(System.getProperty("storage.backends", "sqlite,mysql,mongo").split(","));
+
+        File sqliteFolder = Files.createTempDirectory("investments-contract").toFile();
+        List<Backend> backends = new ArrayList<>();
+        if (wanted.contains("sqlite")) {
+            backends.add(new Backend("sqlite", true, () -> {
+                YamlConfiguration cfg = new YamlConfiguration();
+                cfg.set("sqlite.file", "contract.db");
+                return new SqliteInvestmentStorage(cfg, sqliteFolder, LOGGER);
+            }));
+        }
+        String mysqlUrl = System.getProperty("storage.mysql.url");
+        if (wanted.contains("mysql")) {
+            if (mysqlUrl == null || mysqlUrl.isBlank()) {
+                System.out.println("mysql: skipped, no -Dstorage.mysql.url");
+            } else {
+                backends.add(new Backend("mysql", true, () -> {
+                    YamlConfiguration cfg = new YamlConfiguration();
+                    cfg.set("mysql.username", System.getProperty("storage.mysql.user", "root"));
+                    cfg.set("mysql.password", System.getProperty("storage.mysql.password", ""));
+                    return new SqlInvestmentStorage(cfg, LOGGER, mysqlUrl);
+                }));
+            }
+        }
+        String mongoUri = System.getProperty("storage.mongo.uri");
+        if (wanted.contains("mongo")) {
+            if (mongoUri == null || mongoUri.isBlank()) {
+                System.out.println("mongo: skipped, no -Dstorage.mongo.uri");
+            } else {
+                backends.add(new Backend("mongo", false, () -> {
+                    YamlConfiguration cfg = new YamlConfiguration();
+                    cfg.set("mongodb.uri", mongoUri);
+                    cfg.set("mongodb.database", System.getProperty("storage.mongo.database", "investments_contract"));
+                    cfg.set("mongodb.collection", "player_investments");
+                    return new MongoInvestmentStorage(cfg, LOGGER);
+                }));
+            }
+        }
+
+        System.out.printf("%d profiles x %d investments, batches of %d%n", profiles, perProfile, batch);
+
+        int failed = 0;
+        for (Backend backend : backends) {
+            InvestmentStorage storage = backend.factory.get();
+            storage.init();
+            Run run = new Run(backend, storage);
+            try {
+                runScenarios(run, profiles, perProfile, batch);
+            } catch (RuntimeException ex) {
+                run.fail("aborted: " + ex);
+            } finally {
+                storage.close();
+            }
+            report(run);
+            failed += run.failures.isEmpty() ? 0 : 1;
+        }
+
+        deleteRecursively(sqliteFolder);
+        System.exit(failed > 0 ? 1 : 0);
+    }
+
+    private static void runScenarios(Run run, int count, int perProfile, int batch) {
+        if (!run.storage.saveProfiles(Collections.emptyList())) {
+            run.fail("saveProfiles(empty) returned false");
+        }
+
+        Random random = new Random(42L);
+        for (int i = 0; i < count; i++) {
+            InvestmentProfile profile = new InvestmentProfile(UUID.randomUUID());
+            for (int j = 0; j < perProfile; j++) {
+                // 10k .. 10M with cents, like real deposits
+                BigDecimal amount = BigDecimal.valueOf(1_000_000L + random.nextInt(1_000_000_000), 2);
+                if (j == 0) {
+                    // "/invest 1234.5678" is kept to the micro, so storage has to keep it too
+                    amount = amount.add(BigDecimal.valueOf(1 + random.nextInt(9_999), MoneyUnits.SCALE));
+                }
+                profile.addInvestment(amount);
+            }
+            if (i % 100 == 0) {
+                profile.addInvestment(LARGE_AMOUNT);
+            }
+            profile.accrue(RATE);
+            profile.setAutoCollect(i % 3 == 0);
+            run.profiles.add(profile);
+        }
+
+        bulkSave(run, batch);
+        coldLoad(run, "cold load");
+        totals(run);
+        hotSave(run);
+        coldLoad(run, "reload");
+        delete(run);
+    }
+
+    private static void bulkSave(Run run, int batch) {
+        Latencies latencies = new Latencies("bulk save", (run.profiles.size() + batch - 1) / batch);
+        for (int from = 0; from < run.profiles.size(); from += batch) {
+            List<ProfileSnapshot> snapshots = new ArrayList<>(batch);
+            for (InvestmentProfile profile : run.profiles.subList(from, Math.min(run.profiles.size(), from + batch))) {
+                snapshots.add(profile.snapshot());
+            }
+
+            long start = System.nanoTime();
+            boolean saved = run.storage.saveProfiles(snapshots);
+            latencies.add(System.nanoTime() - start, snapshots.size());
+
+            if (!saved) {
+                run.fail("bulk save: saveProfiles returned false for " + snapshots.size() + " profile(s)");
+                continue;
+            }
+            for (ProfileSnapshot snapshot : snapshots) {
+                snapshot.markPersisted();
+            }
+        }
+        run.results.add(latencies);
+
+        for (InvestmentProfile profile : run.profiles) {
+            if (profile.hasUnsavedChanges()) {
+                run.fail("bulk save: " + profile.getOwner() + " still dirty after markPersisted");
+            }
+            if (!run.backend.rowIds) {
+                continue;
+            }
+            for (Investment inv : profile.getInvestments()) {
+                if (inv.getId() == 0L) {
+                    run.fail("bulk save: " + profile.getOwner() + " got no generated row id");
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void coldLoad(Run run, String scenario) {
+        Latencies latencies = new Latencies(scenario, run.profiles.size());
+        for (InvestmentProfile profile : run.profiles) {
+            long start = System.nanoTime();
+            StoredProfile stored = run.storage.loadProfile(profile.getOwner());
+            latencies.add(System.nanoTime() - start, 1);
+
+            String diff = compare(profile, stored);
+            if (diff != null) {
+                run.fail(scenario + ": " + profile.getOwner() + " " + diff);
+            }
+        }
+        run.results.add(latencies);
+    }
+
+    private static void totals(Run run) {
+        Latencies latencies = new Latencies("totals", 1);
+        long start = System.nanoTime();
+        Map<UUID, PlayerTotals> totals = run.storage.loadPlayerTotals();
+        latencies.add(System.nanoTime() - start, run.profiles.size());
+        run.results.add(latencies);
+
+        for (InvestmentProfile profile : run.profiles) {
+            PlayerTotals stored = totals.get(profile.getOwner());
+            if (stored == null) {
+                run.fail("totals: " + profile.getOwner() + " missing");
+                continue;
+            }
+            BigDecimal invested = MoneyUnits.toBigDecimal(profile.getTotalInvestedMicros());
+            BigDecimal profit = MoneyUnits.toBigDecimal(profile.getTotalProfitMicros());
+            if (stored.getInvested().compareTo(invested) != 0 || stored.getProfit().compareTo(profit) != 0) {
+                run.fail("totals: " + profile.getOwner() + " expected " + invested + "/" + profit
+                        + ", got " + stored.getInvested() + "/" + stored.getProfit());
+            }
+        }
+    }
+
+    // one interest round and the odd autocollect toggle, each profile written on its own
+    private static void hotSave(Run run) {
+        Latencies latencies = new Latencies("hot save", run.profiles.size());
+        for (int i = 0; i < run.profiles.size(); i++) {
+            InvestmentProfile profile = run.profiles.get(i);
+            profile.accrue(RATE);
+            if (i % 5 == 0) {
+                profile.setAutoCollect(!profile.isAutoCollect());
+            }
+
+            ProfileSnapshot snapshot = profile.snapshot();
+            long start = System.nanoTime();
+            boolean saved = run.storage.saveProfile(snapshot);
+            latencies.add(System.nanoTime() - start, 1);
+
+            if (saved) {
+                snapshot.markPersisted();
+            } else {
+                run.fail("hot save: saveProfile returned false for " + profile.getOwner());
+            }
+        }
+        run.results.add(latencies);
+    }
+
+    // half through the profile (removed rows in a normal save), half through deleteInvestments
+    private static void delete(Run run) {
+        Latencies latencies = new Latencies("delete", run.profiles.size());
+        for (int i = 0; i < run.profiles.size(); i++) {
+            InvestmentProfile profile = run.profiles.get(i);
+            long start;
+            if (i % 2 == 0) {
+                profile.deleteAllInvestments();
+                ProfileSnapshot snapshot = profile.snapshot();
+                start = System.nanoTime();
+                if (!run.storage.saveProfile(snapshot)) {
+                    run.fail("delete: saveProfile returned false for " + profile.getOwner());
+                }
+            } else {
+                start = System.nanoTime();
+                run.storage.deleteInvestments(profile.getOwner());
+            }
+            latencies.add(System.nanoTime() - start, 1);
+        }
+        run.results.add(latencies);
+
+        Map<UUID, PlayerTotals> totals = run.storage.loadPlayerTotals();
+        for (InvestmentProfile profile : run.profiles) {
+            if (!run.storage.loadProfile(profile.getOwner()).getInvestments().isEmpty()) {
+                run.fail("delete: " + profile.getOwner() + " still has investments");
+            }
+            if (totals.containsKey(profile.getOwner())) {
+                run.fail("delete: " + profile.getOwner() + " still in totals");
+            }
+        }
+    }
+
+    /** Null if storage holds exactly the profile's investments, in any order; otherwise what differs. */
+    private static String compare(InvestmentProfile profile, StoredProfile stored) {
+        List<String> expected = amounts(profile.getInvestments());
+        List<String> actual = amounts(stored.getInvestments());
+        if (!expected.equals(actual)) {
+            return "expected " + expected + ", got " + actual;
+        }
+        if (profile.isAutoCollect() != stored.isAutoCollect()) {
+            return "expected autoCollect=" + profile.isAutoCollect() + ", got " + stored.isAutoCollect();
+        }
+        return null;
+    }
+
+    // exact micros, so a rounded or truncated amount shows up as a difference
+    private static List<String> amounts(List<Investment> investments) {
+        List<String> amounts = new ArrayList<>(investments.size());
+        for (Investment inv : investments) {
+            amounts.add(inv.getInvestedMicros() + "/" + inv.getProfitMicros());
+        }
+        Collections.sort(amounts);
+        return amounts;
+    }
+
+    private static void report(Run run) {
+        System.out.println();
+        System.out.println(run.backend.name + ":");
+        System.out.printf("  %-12s %8s %12s %12s %25s%n", "scenario", "samples", "p50", "p99", "throughput");
+        for (Latencies latencies : run.results) {
+            latencies.print();
+        }
+
+        if (run.failures.isEmpty()) {
+            System.out.println("  contract: OK");
+            return;
+        }
+        System.out.println("  contract: FAILED (" + run.failures.size() + ")");
+        for (String failure : run.failures.subList(0, Math.min(MAX_REPORTED_FAILURES, run.failures.size()))) {
+            System.out.println("    " + failure);
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,66 @@
+package com.jamplifier.investments.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/** formatShort / parseAmount over a spread of magnitudes, one value per call. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmountUtilBenchmark {
+
+    private static final BigDecimal[] VALUES = {
+            new BigDecimal("0.05"),
+            new BigDecimal("999.99"),
+            new BigDecimal("12345.67"),
+            new BigDecimal("1200000.00"),
+            new BigDecimal("3450000000.10"),
+            new BigDecimal("7890000000000"),
+    };
+
+    private static final long[] MICROS = {
+            50_000L,
+            999_990_000L,
+            12_345_670_000L,
+            1_200_000_000_000L,
+            3_450_000_000_100_000L,
+    };
+
+    private static final String[] INPUTS = {"250", "10k", "1.5m", " 2M ", "3.25b", "1e4", "abc"};
+
+    private int index;
+
+    private int next(int length) {
+        int i = index++;
+        if (index == Integer.MAX_VALUE) index = 0;
+        return i % length;
+    }
+
+    @Benchmark
+    public String formatShort() {
+        return AmountUtil.formatShort(VALUES[next(VALUES.length)]);
+    }
+
+    @Benchmark
+    public String formatShortMicros() {
+        return AmountUtil.formatShortMicros(MICROS[next(MICROS.length)]);
+    }
+
+    @Benchmark
+    public BigDecimal parseAmount() {
+        return AmountUtil.parseAmount(INPUTS[next(INPUTS.length)]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.jamplifier.investments.util;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message rendering as used per notification / command reply: the compiled
+ * template, a full send of a messages.yml entry (from the jar) to a stub
+ * sender, done the way MessageUtils.send does it, and the old replace-loop
+ * rendering as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageRenderBenchmark {
+
+    private static final String NOTIFICATION = "&8[&aInvestments&8] &7You earned &a%amount% &7profit (&e%rate%%%&7).";
+    private static final String MESSAGE_KEY = "error-min-invest-amount";
+
+    private MessageTemplate template;
+    // compiled like MessageUtils does on load: prefix filled in, split on \n
+    private Map<String, MessageTemplate[]> messages;
+    private Map<String, String> placeholders;
+    private CommandSender sender;
+    // what the stub sender received, so the sends cannot be optimized away
+    private long received;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                MessageRenderBenchmark.class.getResourceAsStream("/messages.yml"), StandardCharsets.UTF_8)) {
+            YamlConfiguration yaml = YamlConfiguration.loadConfiguration(reader);
+            String raw = yaml.getString(MESSAGE_KEY, "").replace("<prefix>", yaml.getString("prefix", ""));
+            messages = new HashMap<>();
+            messages.put(MESSAGE_KEY, MessageTemplate.compileLines(raw));
+        }
+
+        template = MessageTemplate.compile(NOTIFICATION);
+
+        placeholders = new HashMap<>();
+        placeholders.put("amount", "1.25k");
+        placeholders.put("amount_short", "1.25k");
+        placeholders.put("amount_full", "1250.5");
+        placeholders.put("rate", "0.5");
+        placeholders.put("min", "10k");
+
+        // headless sender: only counts what it is sent
+        sender = (CommandSender) Proxy.newProxyInstance(
+                CommandSender.class.getClassLoader(),
+                new Class<?>[] {CommandSender.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendMessage")) {
+                        received++;
+                    }
+                    return null;
+                });
+    }
+
+    @Benchmark
+    public String renderTemplate() {
+        return template.render(placeholders);
+    }
+
+    @Benchmark
+    public long sendMessage() {
+        for (MessageTemplate line : messages.get(MESSAGE_KEY)) {
+            sender.sendMessage(line.render(placeholders));
+        }
+        return received;
+    }
+
+    /** What every send did before templates were compiled. */
+    @Benchmark
+    public void legacyReplace(Blackhole bh) {
+        String result = NOTIFICATION;
+        for (Map.Entry<String, String> e : placeholders.entrySet()) {
+            result = result.replace("%" + e.getKey() + "%", e.getValue());
+        }
+        for (String line : result.split("\\\\n")) {
+            bh.consume(MessageUtils.color(line));
+        }
+    }
+}
@@ -8,16 +8,22 @@ import com.jamplifier.investments.gui.ConfirmDeleteMenu;
 import com.jamplifier.investments.gui.ConfirmDeleteMenuListener;
 import com.jamplifier.investments.gui.InvestmentsMenu;
 import com.jamplifier.investments.gui.InvestmentsMenuListener;
+import com.jamplifier.investments.gui.InvestmentsMenuRefresher;
+import com.jamplifier.investments.gui.LeaderboardMenu;
+import com.jamplifier.investments.gui.LeaderboardMenuListener;
 import com.jamplifier.investments.investment.InvestmentManager;
+import com.jamplifier.investments.investment.ProfileSessionListener;
 import com.jamplifier.investments.placeholder.InvestmentsPlaceholderExpansion;
 import com.jamplifier.investments.investment.InterestService;
 import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.WriteBehindQueue;
 import com.jamplifier.investments.storage.mongo.MongoInvestmentStorage;
 import com.jamplifier.investments.storage.sql.SqlInvestmentStorage;
 import com.jamplifier.investments.storage.sql.SqliteInvestmentStorage;
 import com.jamplifier.investments.util.ChatInputManager;
 import com.jamplifier.investments.util.ConfigKeys;
 import com.jamplifier.investments.util.FoliaSchedulerUtil;
+import com.jamplifier.investments.util.InvestmentsSettings;
 import com.jamplifier.investments.util.MessageUtils;
 import net.milkbowl.vault.economy.Economy;
 
@@ -37,15 +43,24 @@ public class InvestmentsPlugin extends JavaPlugin {
 
     private EconomyHook economyHook;
     private InvestmentStorage storage;
+    private WriteBehindQueue writeQueue;
     private InvestmentManager investmentManager;
     private ChatInputManager chatInputManager;
     private InterestService interestService;
+    private InvestmentsPlaceholderExpansion placeholderExpansion;
+    private InvestmentsMenuRefresher menuRefresher;
+    // swapped as a whole on reload, never modified
+    private volatile InvestmentsSettings settings;
     
 
     public static InvestmentsPlugin getInstance() {
         return instance;
     }
 
+    public InvestmentsSettings getSettings() {
+        return settings;
+    }
+
     @Override
     public void onLoad() {
         instance = this;
@@ -54,11 +69,13 @@ public class InvestmentsPlugin extends JavaPlugin {
     @Override
     public void onEnable() {
         saveDefaultConfig();
+        this.settings = InvestmentsSettings.load(getConfig());
 
         MessageUtils.init(this);
         FoliaSchedulerUtil.init(this);
         InvestmentsMenu.init(this);
         ConfirmDeleteMenu.init(this);
+        LeaderboardMenu.init(this);
 
         this.economyHook = new EconomyHook(this);
         if (!economyHook.setupEconomy()) {
@@ -70,10 +87,16 @@ public class InvestmentsPlugin extends JavaPlugin {
         this.storage = createStorage();
         this.storage.init();
 
-        this.investmentManager = new InvestmentManager(this, storage);
+        this.writeQueue = new WriteBehindQueue(this, storage);
+        this.investmentManager = new InvestmentManager(this, storage, writeQueue);
 
         // Interest ticking
         this.interestService = new InterestService(this, investmentManager);
+        investmentManager.setInterestService(interestService);
+        investmentManager.preloadOnlinePlayers();
+        investmentManager.getLeaderboard().seedAsync();
+        investmentManager.getStats().start();
+        investmentManager.reloadCacheSettings();
         interestService.start();
 
         this.chatInputManager = new ChatInputManager();
@@ -84,6 +107,14 @@ public class InvestmentsPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(
                 new ConfirmDeleteMenuListener(investmentManager), this
         );
+        getServer().getPluginManager().registerEvents(
+                new LeaderboardMenuListener(), this
+        );
+        this.menuRefresher = new InvestmentsMenuRefresher(this, interestService);
+        getServer().getPluginManager().registerEvents(menuRefresher, this);
+        getServer().getPluginManager().registerEvents(
+                new ProfileSessionListener(investmentManager, interestService), this
+        );
 
         
         InvestAdminCommand adminCommand = new InvestAdminCommand(this, investmentManager, interestService);
@@ -101,7 +132,8 @@ public class InvestmentsPlugin extends JavaPlugin {
      // PlaceholderAPI hook
         Plugin papi = Bukkit.getPluginManager().getPlugin("PlaceholderAPI");
         if (papi != null && papi.isEnabled()) {
-            new InvestmentsPlaceholderExpansion(this, investmentManager, interestService).register();
+            placeholderExpansion = new InvestmentsPlaceholderExpansion(this, investmentManager, interestService);
+            placeholderExpansion.register();
             getLogger().info("[Investments] Hooked into PlaceholderAPI.");
         } else {
             getLogger().info("[Investments] PlaceholderAPI not found; PAPI placeholders disabled.");
@@ -112,6 +144,19 @@ public class InvestmentsPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (menuRefresher != null) {
+            menuRefresher.stop();
+        }
+        if (investmentManager != null) {
+            investmentManager.stopCacheSweeper();
+            investmentManager.getStats().stop();
+        }
+        if (interestService != null) {
+            interestService.shutdown();
+        }
+        if (writeQueue != null) {
+            writeQueue.close(getConfig().getLong(ConfigKeys.WRITE_BEHIND_SHUTDOWN_TIMEOUT_SECONDS, 10L));
+        }
         if (storage != null) {
             storage.close();
         }
@@ -120,6 +165,7 @@ public class InvestmentsPlugin extends JavaPlugin {
     public void reloadAll() {
         // core config.yml
         reloadConfig();
+        this.settings = InvestmentsSettings.load(getConfig());
 
         // messages.yml
         MessageUtils.reload();
@@ -127,16 +173,36 @@ public class InvestmentsPlugin extends JavaPlugin {
         // gui.yml
         InvestmentsMenu.reloadConfig();
         ConfirmDeleteMenu.reloadConfig();
+        LeaderboardMenu.reloadConfig();
+        if (menuRefresher != null) {
+            menuRefresher.reload();
+        }
 
         // max-invest-permissions
         if (investmentManager != null) {
             investmentManager.reloadPermissions();
         }
 
+        // profile cache limits, stats reconcile interval
+        if (investmentManager != null) {
+            investmentManager.reloadCacheSettings();
+            investmentManager.getStats().start();
+        }
+
+        // write-behind flush settings
+        if (writeQueue != null) {
+            writeQueue.reloadFromConfig();
+        }
+
         // interest (rate + interval)
         if (interestService != null) {
             interestService.reloadFromConfig();
         }
+
+        // offline placeholder cache
+        if (placeholderExpansion != null) {
+            placeholderExpansion.reloadFromConfig();
+        }
     }
 
     private InvestmentStorage createStorage() {
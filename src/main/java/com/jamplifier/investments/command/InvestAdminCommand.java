@@ -4,6 +4,7 @@ import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.investment.InvestmentManager;
 import com.jamplifier.investments.investment.InvestmentProfile;
 import com.jamplifier.investments.investment.InterestService;
+import com.jamplifier.investments.investment.StatsService;
 import com.jamplifier.investments.util.AmountUtil;
 import com.jamplifier.investments.util.MessageUtils;
 import org.bukkit.Bukkit;
@@ -38,7 +39,8 @@ public class InvestAdminCommand {
                 || sub.equals("multiplier")
                 || sub.equals("view")
                 || sub.equals("give")
-                || sub.equals("remove");
+                || sub.equals("remove")
+                || sub.equals("stats");
     }
 
     public boolean handleAdminCommand(CommandSender sender, String[] args) {
@@ -58,6 +60,8 @@ public class InvestAdminCommand {
                 return handleGive(sender, args);
             case "remove":
                 return handleRemove(sender, args);
+            case "stats":
+                return handleStats(sender);
             default:
                 return false;
         }
@@ -93,7 +97,7 @@ public class InvestAdminCommand {
         }
 
         InvestmentProfile profile = investmentManager.getProfile(target.getUniqueId());
-        if (profile.getInvestments().isEmpty()) {
+        if (profile.getInvestmentCount() == 0) {
             Map<String, String> ph = new HashMap<>();
             ph.put("player", target.getName());
             MessageUtils.send(sender, "admin-delete-none", ph);
@@ -204,7 +208,7 @@ public class InvestAdminCommand {
         ph.put("player", target.getName());
         ph.put("total_invested", AmountUtil.formatShort(profile.getTotalInvested()));
         ph.put("total_profit", AmountUtil.formatShort(profile.getTotalProfit()));
-        ph.put("count", String.valueOf(profile.getInvestments().size()));
+        ph.put("count", String.valueOf(profile.getInvestmentCount()));
         ph.put("autocollect", autoStatus);
 
         MessageUtils.sendMulti(sender, "admin-view-profile", ph);
@@ -309,6 +313,29 @@ public class InvestAdminCommand {
         return true;
     }
 
+    // /invest stats
+    private boolean handleStats(CommandSender sender) {
+        if (!sender.hasPermission("investments.admin")) {
+            MessageUtils.send(sender, "no-permission");
+            return true;
+        }
+
+        StatsService stats = investmentManager.getStats();
+        long reconciled = stats.getLastReconcileMillis();
+
+        Map<String, String> ph = new HashMap<>();
+        ph.put("total_invested", AmountUtil.formatShort(stats.getTotalInvested()));
+        ph.put("total_profit", AmountUtil.formatShort(stats.getTotalProfit()));
+        ph.put("investors", String.valueOf(stats.getInvestorCount()));
+        ph.put("profit_per_hour", AmountUtil.formatShort(stats.getProfitPaidLastHour()));
+        ph.put("last_reconcile", reconciled > 0
+                ? ((System.currentTimeMillis() - reconciled) / 1000L) + "s ago"
+                : "pending");
+
+        MessageUtils.sendMulti(sender, "admin-stats", ph);
+        return true;
+    }
+
     private OfflinePlayer resolvePlayer(String name) {
         OfflinePlayer target = Bukkit.getOfflinePlayerIfCached(name);
         if (target != null) return target;
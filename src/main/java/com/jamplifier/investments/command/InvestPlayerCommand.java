@@ -3,11 +3,11 @@ package com.jamplifier.investments.command;
 import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.economy.EconomyHook;
 import com.jamplifier.investments.gui.InvestmentsMenu;
+import com.jamplifier.investments.gui.LeaderboardMenu;
 import com.jamplifier.investments.investment.InvestmentManager;
 import com.jamplifier.investments.investment.InvestmentProfile;
 import com.jamplifier.investments.investment.InterestService;
 import com.jamplifier.investments.util.AmountUtil;
-import com.jamplifier.investments.util.ConfigKeys;
 import com.jamplifier.investments.util.MessageUtils;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.command.Command;
@@ -66,9 +66,26 @@ public class InvestPlayerCommand implements CommandExecutor {
             return true;
         }
 
+        // /invest top [page] -> leaderboard GUI
+        if (args.length >= 1 && args[0].equalsIgnoreCase("top")) {
+            int page = 1;
+            if (args.length >= 2) {
+                try {
+                    page = Integer.parseInt(args[1]);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            LeaderboardMenu.openFor(player, investmentManager.getLeaderboard(), page);
+            return true;
+        }
+
         // /invest -> open GUI
         if (args.length == 0) {
-            InvestmentProfile profile = investmentManager.getProfile(player.getUniqueId());
+            InvestmentProfile profile = investmentManager.getProfileIfLoaded(player.getUniqueId());
+            if (profile == null) {
+                MessageUtils.send(player, "profile-loading");
+                return true;
+            }
             InvestmentsMenu.openFor(player, profile);
             return true;
         }
@@ -86,8 +103,7 @@ public class InvestPlayerCommand implements CommandExecutor {
 
     private void handleInvest(Player player, BigDecimal amount) {
         // Enforce minimum investment from config
-        double minAmountDouble = plugin.getConfig().getDouble(ConfigKeys.MIN_INVEST_AMOUNT, 10000.0D);
-        BigDecimal minAmount = BigDecimal.valueOf(minAmountDouble);
+        BigDecimal minAmount = plugin.getSettings().getMinInvestAmount();
 
         if (amount.compareTo(minAmount) < 0) {
             Map<String, String> ph = new HashMap<>();
@@ -104,11 +120,15 @@ public class InvestPlayerCommand implements CommandExecutor {
             return;
         }
 
-        InvestmentProfile profile = investmentManager.getProfile(player.getUniqueId());
+        InvestmentProfile profile = investmentManager.getProfileIfLoaded(player.getUniqueId());
+        if (profile == null) {
+            MessageUtils.send(player, "profile-loading");
+            return;
+        }
 
         // Max number of simultaneous investments
         int max = investmentManager.getMaxInvestments(player);
-        if (max > 0 && profile.getInvestments().size() >= max) {
+        if (max > 0 && profile.getInvestmentCount() >= max) {
             Map<String, String> ph = new HashMap<>();
             ph.put("limit", String.valueOf(max));
             MessageUtils.send(player, "max-investments-reached", ph);
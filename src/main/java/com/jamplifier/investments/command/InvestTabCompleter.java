@@ -30,6 +30,7 @@ public class InvestTabCompleter implements TabCompleter {
             completions.add("10000");
             completions.add("50000");
             completions.add("notify");
+            completions.add("top");
 
             // Admin subcommands (single permission node)
             if (sender.hasPermission("investments.admin")) {
@@ -39,6 +40,7 @@ public class InvestTabCompleter implements TabCompleter {
                 completions.add("view");
                 completions.add("give");
                 completions.add("remove");
+                completions.add("stats");
             }
 
             return partial(completions, args[0]);
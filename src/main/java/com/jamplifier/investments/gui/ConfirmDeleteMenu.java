@@ -34,6 +34,8 @@ public class ConfirmDeleteMenu implements InventoryHolder {
 
     private static int yesSlot = 11;
     private static int noSlot = 15;
+    private static ItemTemplate yesTemplate;
+    private static ItemTemplate noTemplate;
 
     private final InvestmentProfile profile;
     private final Inventory inventory;
@@ -73,6 +75,8 @@ public class ConfirmDeleteMenu implements InventoryHolder {
 
         yesSlot = guiConfig.getInt("confirm-delete-gui.yes-button.slot", 11);
         noSlot  = guiConfig.getInt("confirm-delete-gui.no-button.slot", 15);
+        yesTemplate = ItemTemplate.of(guiConfig.getConfigurationSection("confirm-delete-gui.yes-button"), Material.STONE);
+        noTemplate = ItemTemplate.of(guiConfig.getConfigurationSection("confirm-delete-gui.no-button"), Material.STONE);
 
         plugin.getLogger().info("[Investments] ConfirmDeleteMenu config reloaded. yesSlot=" +
                 yesSlot + ", noSlot=" + noSlot);
@@ -93,7 +97,7 @@ public class ConfirmDeleteMenu implements InventoryHolder {
         // Stats for placeholders
         BigDecimal totalInv = profile.getTotalInvested();
         BigDecimal totalProf = profile.getTotalProfit();
-        int count = profile.getInvestments().size();
+        int count = profile.getInvestmentCount();
 
         Map<String, String> placeholders = new HashMap<>();
         placeholders.put("total_invested", AmountUtil.formatShort(totalInv));
@@ -120,56 +124,16 @@ public class ConfirmDeleteMenu implements InventoryHolder {
         }
 
         // YES item from confirm-delete-gui.yes-button
-        ConfigurationSection yesSec = guiConfig.getConfigurationSection("confirm-delete-gui.yes-button");
-        if (yesSec != null && yesSlot >= 0 && yesSlot < inventory.getSize()) {
-            ItemStack yesItem = buildItem(yesSec, placeholders);
-            inventory.setItem(yesSlot, yesItem);
+        if (yesTemplate != null && yesSlot >= 0 && yesSlot < inventory.getSize()) {
+            inventory.setItem(yesSlot, yesTemplate.render(placeholders));
         }
 
         // NO item from confirm-delete-gui.no-button
-        ConfigurationSection noSec = guiConfig.getConfigurationSection("confirm-delete-gui.no-button");
-        if (noSec != null && noSlot >= 0 && noSlot < inventory.getSize()) {
-            ItemStack noItem = buildItem(noSec, placeholders);
-            inventory.setItem(noSlot, noItem);
+        if (noTemplate != null && noSlot >= 0 && noSlot < inventory.getSize()) {
+            inventory.setItem(noSlot, noTemplate.render(placeholders));
         }
     }
 
-    private ItemStack buildItem(ConfigurationSection section, Map<String, String> placeholders) {
-        if (section == null) return null;
-
-        String matName = section.getString("material", "STONE");
-        Material mat = Material.matchMaterial(matName != null ? matName.trim() : "STONE");
-        if (mat == null) mat = Material.STONE;
-
-        ItemStack stack = new ItemStack(mat);
-        ItemMeta meta = stack.getItemMeta();
-
-        String name = section.getString("name", "");
-        meta.setDisplayName(apply(name, placeholders));
-
-        List<String> loreLines = new ArrayList<>();
-        for (String line : section.getStringList("lore")) {
-            loreLines.add(apply(line, placeholders));
-        }
-        if (!loreLines.isEmpty()) {
-            meta.setLore(loreLines);
-        }
-
-        stack.setItemMeta(meta);
-        return stack;
-    }
-
-    private String apply(String line, Map<String, String> placeholders) {
-        if (line == null) return "";
-        String result = line;
-        if (placeholders != null) {
-            for (Map.Entry<String, String> e : placeholders.entrySet()) {
-                result = result.replace("%" + e.getKey() + "%", e.getValue());
-            }
-        }
-        return MessageUtils.color(result);
-    }
-
     public static int getYesSlot() {
         return yesSlot;
     }
@@ -17,8 +17,17 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
 
+/**
+ * Main investments GUI.
+ *
+ * Items that never change (filler, delete) are built once per
+ * {@link #reloadConfig()} and the dynamic ones are compiled into templates, so
+ * opening the menu does no config lookups. While it is open, {@link #refresh()}
+ * re-renders only the dynamic slots in place, and only if the profile changed.
+ */
 public class InvestmentsMenu implements InventoryHolder {
 
     private static InvestmentsPlugin plugin;
@@ -37,8 +46,23 @@ public class InvestmentsMenu implements InventoryHolder {
     private static boolean fillerAllSlots;
     private static List<Integer> fillerSlots = new ArrayList<>();
 
+    // prebuilt in reloadConfig(); setItem copies the stack, so sharing them is safe
+    private static ItemStack fillerItem;
+    private static ItemStack deleteItem;
+    private static ItemTemplate infoTemplate;
+    private static ItemTemplate collectTemplate;
+    private static ItemTemplate autoOnTemplate;
+    private static ItemTemplate autoOffTemplate;
+
+    private static boolean liveRefreshEnabled;
+    private static long liveRefreshTicks;
+
     private final InvestmentProfile profile;
     private final Inventory inventory;
+    // profile version the dynamic slots show; -1 forces a render
+    private long renderedVersion = -1L;
+    // what each dynamic slot currently shows, so unchanged slots are not resent
+    private final Map<Integer, List<String>> shown = new HashMap<>();
 
     public static void init(InvestmentsPlugin pl) {
         plugin = pl;
@@ -89,6 +113,24 @@ public class InvestmentsMenu implements InventoryHolder {
                 }
             }
         }
+
+        fillerItem = null;
+        if (fillerEnabled) {
+            fillerItem = new ItemStack(fillerMaterial);
+            ItemMeta meta = fillerItem.getItemMeta();
+            meta.setDisplayName(MessageUtils.color(fillerName));
+            fillerItem.setItemMeta(meta);
+        }
+
+        ItemTemplate deleteTemplate = ItemTemplate.of(root.getConfigurationSection("delete-item"), Material.STONE);
+        deleteItem = deleteTemplate != null ? deleteTemplate.render(null) : null;
+        infoTemplate = ItemTemplate.of(root.getConfigurationSection("info-item"), Material.STONE);
+        collectTemplate = ItemTemplate.of(root.getConfigurationSection("collect-item"), Material.STONE);
+        autoOnTemplate = ItemTemplate.of(root.getConfigurationSection("autocollect-item-on"), Material.STONE);
+        autoOffTemplate = ItemTemplate.of(root.getConfigurationSection("autocollect-item-off"), Material.STONE);
+
+        liveRefreshEnabled = root.getBoolean("live-refresh.enabled", false);
+        liveRefreshTicks = Math.max(1L, root.getLong("live-refresh.interval-ticks", 20L));
     }
 
     public InvestmentsMenu(InvestmentProfile profile) {
@@ -127,19 +169,17 @@ public class InvestmentsMenu implements InventoryHolder {
         return autocollectSlot;
     }
 
-    private void build() {
-        ConfigurationSection root = guiConfig.getConfigurationSection("investments-gui");
-        if (root == null) {
-            return;
-        }
+    public static boolean isLiveRefreshEnabled() {
+        return liveRefreshEnabled;
+    }
 
-        // Fillers
-        if (fillerEnabled) {
-            ItemStack fillerItem = new ItemStack(fillerMaterial);
-            ItemMeta meta = fillerItem.getItemMeta();
-            meta.setDisplayName(MessageUtils.color(fillerName));
-            fillerItem.setItemMeta(meta);
+    public static long getLiveRefreshTicks() {
+        return liveRefreshTicks;
+    }
 
+    private void build() {
+        // Fillers
+        if (fillerItem != null) {
             if (fillerAllSlots) {
                 for (int i = 0; i < inventory.getSize(); i++) {
                     inventory.setItem(i, fillerItem);
@@ -153,77 +193,64 @@ public class InvestmentsMenu implements InventoryHolder {
             }
         }
 
+        // Delete
+        if (deleteItem != null && deleteSlot >= 0 && deleteSlot < inventory.getSize()) {
+            inventory.setItem(deleteSlot, deleteItem);
+        }
+
+        refresh();
+    }
+
+    /**
+     * Re-render the info, collect and auto-collect slots on this (possibly
+     * open) inventory. Does nothing if the profile hasn't changed since.
+     */
+    public void refresh() {
+        long version = profile.getVersion();
+        if (version == renderedVersion) {
+            return;
+        }
+        renderedVersion = version;
+
         BigDecimal invested = profile.getTotalInvested();
         BigDecimal profit = profile.getTotalProfit();
-
-     // Read interest rate from config for GUI placeholder
-        double rate = plugin.getConfig().getDouble("interest.rate-percent", 1.0D);
+        boolean autoCollect = profile.isAutoCollect();
 
         Map<String, String> placeholders = new HashMap<>();
         placeholders.put("amount_invested", AmountUtil.formatShort(invested));
         placeholders.put("profit", AmountUtil.formatShort(profit));
         placeholders.put("autocollect_status",
-                profile.isAutoCollect() ? "&aAktiviert" : "&cDeaktiviert");
-        placeholders.put("interest_rate", String.valueOf(rate));
-
-        // Delete
-        ItemStack deleteItem = buildItem(root.getConfigurationSection("delete-item"), null);
-        if (deleteItem != null && deleteSlot >= 0 && deleteSlot < inventory.getSize()) {
-            inventory.setItem(deleteSlot, deleteItem);
-        }
+                autoCollect ? "&aAktiviert" : "&cDeaktiviert");
+        BigDecimal interestRate = plugin.getSettings().getInterestRatePercent();
+        placeholders.put("interest_rate", String.valueOf(interestRate.doubleValue()));
+        // earnings per second = invested * (rate% / 100), as the placeholder computes it
+        placeholders.put("earn_per_second", AmountUtil.formatShort(invested
+                .multiply(interestRate)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.DOWN)));
 
         // Info
-        ItemStack infoItem = buildItem(root.getConfigurationSection("info-item"), placeholders);
-        if (infoItem != null && infoSlot >= 0 && infoSlot < inventory.getSize()) {
-            inventory.setItem(infoSlot, infoItem);
-        }
+        renderSlot(infoSlot, infoTemplate, placeholders);
 
         // Collect
-        ItemStack collectItem = buildItem(root.getConfigurationSection("collect-item"), placeholders);
-        if (collectItem != null && collectSlot >= 0 && collectSlot < inventory.getSize()) {
-            inventory.setItem(collectSlot, collectItem);
-        }
+        renderSlot(collectSlot, collectTemplate, placeholders);
 
         // Auto-collect toggle item
-        ConfigurationSection autoOn = root.getConfigurationSection("autocollect-item-on");
-        ConfigurationSection autoOff = root.getConfigurationSection("autocollect-item-off");
-        if (autocollectSlot >= 0 && autocollectSlot < inventory.getSize() && autoOn != null && autoOff != null) {
-            ItemStack autoItem = buildItem(profile.isAutoCollect() ? autoOn : autoOff, placeholders);
-            inventory.setItem(autocollectSlot, autoItem);
+        if (autoOnTemplate != null && autoOffTemplate != null) {
+            renderSlot(autocollectSlot, autoCollect ? autoOnTemplate : autoOffTemplate, placeholders);
         }
     }
 
-    private ItemStack buildItem(ConfigurationSection section, Map<String, String> placeholders) {
-        if (section == null) return null;
-
-        String matName = section.getString("material", "STONE");
-        Material mat = Material.matchMaterial(matName);
-        if (mat == null) mat = Material.STONE;
-
-        ItemStack stack = new ItemStack(mat);
-        ItemMeta meta = stack.getItemMeta();
-
-        String name = section.getString("name", "");
-        meta.setDisplayName(apply(name, placeholders));
-
-        List<String> loreLines = new ArrayList<>();
-        for (String line : section.getStringList("lore")) {
-            loreLines.add(apply(line, placeholders));
+    private void renderSlot(int slot, ItemTemplate template, Map<String, String> placeholders) {
+        if (template == null || slot < 0 || slot >= inventory.getSize()) {
+            return;
         }
-        meta.setLore(loreLines);
-
-        stack.setItemMeta(meta);
-        return stack;
-    }
 
-    private String apply(String line, Map<String, String> placeholders) {
-        if (line == null) return "";
-        String result = line;
-        if (placeholders != null) {
-            for (Map.Entry<String, String> e : placeholders.entrySet()) {
-                result = result.replace("%" + e.getKey() + "%", e.getValue());
-            }
+        List<String> lines = template.lines(placeholders);
+        // same text as before: the client already shows it
+        if (lines.equals(shown.get(slot))) {
+            return;
         }
-        return MessageUtils.color(result);
+        shown.put(slot, lines);
+        inventory.setItem(slot, template.toItem(lines));
     }
 }
@@ -8,9 +8,7 @@ import com.jamplifier.investments.util.AmountUtil;
 import com.jamplifier.investments.util.ChatInputManager;
 import com.jamplifier.investments.util.GuiClickGuard;
 import com.jamplifier.investments.util.MessageUtils;
-import com.jamplifier.investments.util.ConfigKeys;
 import net.milkbowl.vault.economy.Economy;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -47,14 +45,14 @@ public class InvestmentsMenuListener implements Listener {
 
         Object holder = event.getInventory().getHolder();
 
-        if (holder instanceof InvestmentsMenu) {
-            handleMainMenuClick(event, player);
+        if (holder instanceof InvestmentsMenu menu) {
+            handleMainMenuClick(event, player, menu);
         }
     }
 
     // ===================== MAIN MENU =====================
 
-    private void handleMainMenuClick(InventoryClickEvent event, Player player) {
+    private void handleMainMenuClick(InventoryClickEvent event, Player player, InvestmentsMenu menu) {
         event.setCancelled(true);
 
         int rawSlot = event.getRawSlot();
@@ -67,11 +65,15 @@ public class InvestmentsMenuListener implements Listener {
         }
 
         UUID uuid = player.getUniqueId();
-        InvestmentProfile profile = investmentManager.getProfile(uuid);
+        InvestmentProfile profile = investmentManager.getProfileIfLoaded(uuid);
+        if (profile == null) {
+            MessageUtils.send(player, "profile-loading");
+            return;
+        }
 
         // DELETE investment -> open confirm GUI instead of instant delete
         if (rawSlot == InvestmentsMenu.getDeleteSlot()) {
-            if (profile.getInvestments().isEmpty()) {
+            if (profile.getInvestmentCount() == 0) {
                 MessageUtils.send(player, "no-investments");
                 return;
             }
@@ -94,15 +96,19 @@ public class InvestmentsMenuListener implements Listener {
 
                 handleInvest(p, amount);
 
-                // Re-open GUI after a (potential) invest
-                InvestmentsMenu.openFor(p, investmentManager.getProfile(p.getUniqueId()));
+                // Re-open GUI after a (potential) invest; handleInvest already
+                // told them if the profile is not loaded
+                InvestmentProfile current = investmentManager.getProfileIfLoaded(p.getUniqueId());
+                if (current != null) {
+                    InvestmentsMenu.openFor(p, current);
+                }
             });
             return;
         }
 
         // Auto-collect toggle slot (red/green glass)
         if (rawSlot == InvestmentsMenu.getAutocollectSlot()) {
-            if (!player.hasPermission(plugin.getConfig().getString("autocollect.permission", "investments.autocollect"))) {
+            if (!player.hasPermission(plugin.getSettings().getAutocollectPermission())) {
                 MessageUtils.send(player, "no-permission");
                 return;
             }
@@ -112,7 +118,7 @@ public class InvestmentsMenuListener implements Listener {
             investmentManager.saveProfile(profile);
 
             MessageUtils.send(player, newState ? "autocollect-enabled" : "autocollect-disabled");
-            InvestmentsMenu.openFor(player, investmentManager.getProfile(uuid));
+            menu.refresh();
             return;
         }
 
@@ -120,7 +126,7 @@ public class InvestmentsMenuListener implements Listener {
         if (rawSlot == InvestmentsMenu.getCollectSlot()) {
             // Right-click = toggle auto-collect
             if (event.getClick() == ClickType.RIGHT) {
-                if (!player.hasPermission(plugin.getConfig().getString("autocollect.permission", "investments.autocollect"))) {
+                if (!player.hasPermission(plugin.getSettings().getAutocollectPermission())) {
                     MessageUtils.send(player, "no-permission");
                     return;
                 }
@@ -130,7 +136,7 @@ public class InvestmentsMenuListener implements Listener {
                 investmentManager.saveProfile(profile);
 
                 MessageUtils.send(player, newState ? "autocollect-enabled" : "autocollect-disabled");
-                InvestmentsMenu.openFor(player, investmentManager.getProfile(uuid));
+                menu.refresh();
                 return;
             }
 
@@ -147,7 +153,8 @@ public class InvestmentsMenuListener implements Listener {
             ph.put("amount", AmountUtil.formatShort(collected));
             MessageUtils.send(player, "profit-collected", ph);
 
-            InvestmentsMenu.openFor(player, investmentManager.getProfile(uuid));
+            // same window, only the changed slots are resent
+            menu.refresh();
 
         }
     }
@@ -159,12 +166,9 @@ public class InvestmentsMenuListener implements Listener {
         String trimmed = input.trim();
 
         // First: check pre-selected-investments.<input>
-        ConfigurationSection pre = plugin.getConfig().getConfigurationSection("pre-selected-investments");
-        if (pre != null && pre.isSet(trimmed)) {
-            double val = pre.getDouble(trimmed, -1.0D);
-            if (val > 0) {
-                return BigDecimal.valueOf(val);
-            }
+        BigDecimal preSelected = plugin.getSettings().getPreSelectedInvestment(trimmed);
+        if (preSelected != null) {
+            return preSelected;
         }
 
         // Fallback: parse as numeric amount (supports k/m/b etc. via AmountUtil)
@@ -173,8 +177,7 @@ public class InvestmentsMenuListener implements Listener {
 
     private void handleInvest(Player player, BigDecimal amount) {
         // Minimum invest amount (same as /invest)
-        double minAmountDouble = plugin.getConfig().getDouble(ConfigKeys.MIN_INVEST_AMOUNT, 10000.0D);
-        BigDecimal minAmount = BigDecimal.valueOf(minAmountDouble);
+        BigDecimal minAmount = plugin.getSettings().getMinInvestAmount();
 
         if (amount.compareTo(minAmount) < 0) {
             Map<String, String> ph = new HashMap<>();
@@ -191,11 +194,15 @@ public class InvestmentsMenuListener implements Listener {
             return;
         }
 
-        InvestmentProfile profile = investmentManager.getProfile(player.getUniqueId());
+        InvestmentProfile profile = investmentManager.getProfileIfLoaded(player.getUniqueId());
+        if (profile == null) {
+            MessageUtils.send(player, "profile-loading");
+            return;
+        }
 
         // Max simultaneous investments (count)
         int max = investmentManager.getMaxInvestments(player);
-        if (max > 0 && profile.getInvestments().size() >= max) {
+        if (max > 0 && profile.getInvestmentCount() >= max) {
             Map<String, String> ph = new HashMap<>();
             ph.put("limit", String.valueOf(max));
             MessageUtils.send(player, "max-investments-reached", ph);
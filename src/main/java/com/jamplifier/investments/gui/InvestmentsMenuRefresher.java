@@ -0,0 +1,162 @@
+package com.jamplifier.investments.gui;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import com.jamplifier.investments.investment.InterestService;
+import com.jamplifier.investments.util.FoliaSchedulerUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps open investments menus up to date while they are being looked at
+ * ({@code investments-gui.live-refresh} in gui.yml).
+ *
+ * Viewers are tracked from open/close events. One shared timer walks only
+ * those viewers, and only runs while there is at least one. A refresh
+ * that finds the profile unchanged does nothing; otherwise only the slots
+ * whose text changed are resent (see {@link InvestmentsMenu#refresh()}).
+ */
+public class InvestmentsMenuRefresher implements Listener {
+
+    private final InvestmentsPlugin plugin;
+    private final InterestService interestService;
+
+    private final Map<UUID, InvestmentsMenu> viewers = new ConcurrentHashMap<>();
+
+    private ScheduledTask foliaTask;
+    private BukkitTask bukkitTask;
+
+    public InvestmentsMenuRefresher(InvestmentsPlugin plugin, InterestService interestService) {
+        this.plugin = plugin;
+        this.interestService = interestService;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onOpen(InventoryOpenEvent event) {
+        if (!(event.getInventory().getHolder() instanceof InvestmentsMenu menu)) {
+            return;
+        }
+        if (!InvestmentsMenu.isLiveRefreshEnabled()) {
+            return;
+        }
+
+        viewers.put(event.getPlayer().getUniqueId(), menu);
+        startIfNeeded();
+    }
+
+    @EventHandler
+    public void onClose(InventoryCloseEvent event) {
+        if (!(event.getInventory().getHolder() instanceof InvestmentsMenu menu)) {
+            return;
+        }
+
+        // only if it is still the menu we track for them
+        viewers.remove(event.getPlayer().getUniqueId(), menu);
+        stopIfIdle();
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        if (viewers.remove(event.getPlayer().getUniqueId()) != null) {
+            stopIfIdle();
+        }
+    }
+
+    /** Apply gui.yml changes: the interval, or switching live refresh off. */
+    public synchronized void reload() {
+        cancelTimer();
+        if (!InvestmentsMenu.isLiveRefreshEnabled()) {
+            viewers.clear();
+            return;
+        }
+        startIfNeeded();
+    }
+
+    public synchronized void stop() {
+        cancelTimer();
+        viewers.clear();
+    }
+
+    private synchronized void startIfNeeded() {
+        if (viewers.isEmpty() || foliaTask != null || bukkitTask != null) {
+            return;
+        }
+
+        long ticks = InvestmentsMenu.getLiveRefreshTicks();
+        if (FoliaSchedulerUtil.isFolia()) {
+            foliaTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin,
+                    scheduledTask -> refreshViewers(),
+                    ticks,
+                    ticks
+            );
+        } else {
+            bukkitTask = Bukkit.getScheduler().runTaskTimer(
+                    plugin,
+                    this::refreshViewers,
+                    ticks,
+                    ticks
+            );
+        }
+    }
+
+    private synchronized void stopIfIdle() {
+        if (viewers.isEmpty()) {
+            cancelTimer();
+        }
+    }
+
+    private void cancelTimer() {
+        if (foliaTask != null) {
+            foliaTask.cancel();
+            foliaTask = null;
+        }
+        if (bukkitTask != null) {
+            bukkitTask.cancel();
+            bukkitTask = null;
+        }
+    }
+
+    private void refreshViewers() {
+        Iterator<Map.Entry<UUID, InvestmentsMenu>> it = viewers.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, InvestmentsMenu> entry = it.next();
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                it.remove();
+                continue;
+            }
+
+            InvestmentsMenu menu = entry.getValue();
+            if (FoliaSchedulerUtil.isFolia()) {
+                // the inventory belongs to the player's region
+                FoliaSchedulerUtil.runForEntity(player, () -> refresh(player, menu));
+            } else {
+                refresh(player, menu);
+            }
+        }
+
+        stopIfIdle();
+    }
+
+    private void refresh(Player player, InvestmentsMenu menu) {
+        if (viewers.get(player.getUniqueId()) != menu) {
+            return; // closed in the meantime
+        }
+        // brings LAZY accrual up to date before the menu reads the profile
+        interestService.settle(menu.getProfile());
+        menu.refresh();
+    }
+}
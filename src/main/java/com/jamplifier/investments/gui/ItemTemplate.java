@@ -0,0 +1,63 @@
+package com.jamplifier.investments.gui;
+
+import com.jamplifier.investments.util.MessageTemplate;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** A configured gui.yml item, compiled once; rendering only fills in placeholders. */
+final class ItemTemplate {
+
+    private final Material material;
+    private final MessageTemplate name;
+    private final MessageTemplate[] lore;
+
+    private ItemTemplate(ConfigurationSection section, Material fallback) {
+        String matName = section.getString("material");
+        Material mat = matName != null ? Material.matchMaterial(matName.trim()) : null;
+        this.material = mat != null ? mat : fallback;
+        this.name = MessageTemplate.compile(section.getString("name", ""));
+
+        List<String> lines = section.getStringList("lore");
+        this.lore = new MessageTemplate[lines.size()];
+        for (int i = 0; i < lore.length; i++) {
+            lore[i] = MessageTemplate.compile(lines.get(i));
+        }
+    }
+
+    /** Null if the section is missing. */
+    static ItemTemplate of(ConfigurationSection section, Material fallback) {
+        return section != null ? new ItemTemplate(section, fallback) : null;
+    }
+
+    ItemStack render(Map<String, String> placeholders) {
+        return toItem(lines(placeholders));
+    }
+
+    /** Material, display name, then lore, with placeholders applied: what the client would see. */
+    List<String> lines(Map<String, String> placeholders) {
+        List<String> lines = new ArrayList<>(lore.length + 2);
+        lines.add(material.name());
+        lines.add(name.render(placeholders));
+        for (MessageTemplate line : lore) {
+            lines.add(line.render(placeholders));
+        }
+        return lines;
+    }
+
+    ItemStack toItem(List<String> lines) {
+        ItemStack stack = new ItemStack(material);
+        ItemMeta meta = stack.getItemMeta();
+        meta.setDisplayName(lines.get(1));
+        if (lines.size() > 2) {
+            meta.setLore(new ArrayList<>(lines.subList(2, lines.size())));
+        }
+        stack.setItemMeta(meta);
+        return stack;
+    }
+}
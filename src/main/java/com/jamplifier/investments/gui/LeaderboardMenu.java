@@ -0,0 +1,166 @@
+package com.jamplifier.investments.gui;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import com.jamplifier.investments.investment.Leaderboard;
+import com.jamplifier.investments.util.AmountUtil;
+import com.jamplifier.investments.util.MessageTemplate;
+import com.jamplifier.investments.util.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Paged top-investors list. Each page reads only its own slice of the
+ * leaderboard index; the last row holds the page buttons.
+ */
+public class LeaderboardMenu implements InventoryHolder {
+
+    private static InvestmentsPlugin plugin;
+    private static FileConfiguration guiConfig;
+
+    private static MessageTemplate title = MessageTemplate.compile("&8Top Investors &7(%page%/%pages%)");
+    private static int size = 54;
+    private static int previousSlot = 45;
+    private static int nextSlot = 53;
+
+    private static boolean fillerEnabled = true;
+    private static Material fillerMaterial = Material.GRAY_STAINED_GLASS_PANE;
+    private static String fillerName = "&7";
+
+    private static ItemTemplate entryTemplate;
+    private static ItemTemplate previousTemplate;
+    private static ItemTemplate nextTemplate;
+
+    private final Leaderboard leaderboard;
+    private final int page;
+    private final int pages;
+    private final Inventory inventory;
+
+    public static void init(InvestmentsPlugin pl) {
+        plugin = pl;
+        reloadConfig();
+    }
+
+    public static void reloadConfig() {
+        File file = new File(plugin.getDataFolder(), "gui.yml");
+        if (!file.exists()) {
+            plugin.saveResource("gui.yml", false);
+        }
+        guiConfig = YamlConfiguration.loadConfiguration(file);
+
+        title = MessageTemplate.compile(guiConfig.getString("leaderboard-gui.title", "&8Top Investors &7(%page%/%pages%)"));
+        // at least one row of entries plus the button row
+        size = Math.max(18, Math.min(54, guiConfig.getInt("leaderboard-gui.size", 54) / 9 * 9));
+        previousSlot = guiConfig.getInt("leaderboard-gui.previous-page-slot", size - 9);
+        nextSlot = guiConfig.getInt("leaderboard-gui.next-page-slot", size - 1);
+
+        ConfigurationSection fillerSec = guiConfig.getConfigurationSection("leaderboard-gui.filler");
+        if (fillerSec != null) {
+            fillerEnabled = fillerSec.getBoolean("enabled", true);
+            Material mat = Material.matchMaterial(fillerSec.getString("material", "GRAY_STAINED_GLASS_PANE"));
+            fillerMaterial = mat != null ? mat : Material.GRAY_STAINED_GLASS_PANE;
+            fillerName = fillerSec.getString("name", "&7");
+        } else {
+            fillerEnabled = true;
+            fillerMaterial = Material.GRAY_STAINED_GLASS_PANE;
+            fillerName = "&7";
+        }
+
+        entryTemplate = ItemTemplate.of(guiConfig.getConfigurationSection("leaderboard-gui.entry-item"), Material.PLAYER_HEAD);
+        previousTemplate = ItemTemplate.of(guiConfig.getConfigurationSection("leaderboard-gui.previous-page-item"), Material.ARROW);
+        nextTemplate = ItemTemplate.of(guiConfig.getConfigurationSection("leaderboard-gui.next-page-item"), Material.ARROW);
+    }
+
+    public static void openFor(Player player, Leaderboard leaderboard, int page) {
+        LeaderboardMenu menu = new LeaderboardMenu(leaderboard, page);
+        player.openInventory(menu.getInventory());
+    }
+
+    public LeaderboardMenu(Leaderboard leaderboard, int page) {
+        this.leaderboard = leaderboard;
+        int perPage = entriesPerPage();
+        this.pages = Math.max(1, (leaderboard.size() + perPage - 1) / perPage);
+        this.page = Math.max(1, Math.min(page, pages));
+
+        Map<String, String> titlePh = new HashMap<>();
+        titlePh.put("page", String.valueOf(this.page));
+        titlePh.put("pages", String.valueOf(pages));
+        this.inventory = Bukkit.createInventory(this, size, title.render(titlePh));
+        build();
+    }
+
+    private static int entriesPerPage() {
+        return size - 9;
+    }
+
+    private void build() {
+        // Filler on the button row
+        if (fillerEnabled) {
+            ItemStack filler = new ItemStack(fillerMaterial);
+            ItemMeta meta = filler.getItemMeta();
+            meta.setDisplayName(MessageUtils.color(fillerName));
+            filler.setItemMeta(meta);
+            for (int i = size - 9; i < size; i++) {
+                inventory.setItem(i, filler);
+            }
+        }
+
+        int perPage = entriesPerPage();
+        List<Leaderboard.Entry> entries = leaderboard.getRange((page - 1) * perPage + 1, perPage);
+
+        int slot = 0;
+        for (Leaderboard.Entry entry : entries) {
+            Map<String, String> ph = new HashMap<>();
+            ph.put("rank", String.valueOf(entry.getRank()));
+            ph.put("player", leaderboard.getName(entry.getOwner()));
+            ph.put("invested", AmountUtil.formatShort(entry.getInvested()));
+            inventory.setItem(slot++, render(entryTemplate, ph, Material.PLAYER_HEAD));
+        }
+
+        if (page > 1 && previousSlot >= 0 && previousSlot < size) {
+            inventory.setItem(previousSlot, render(previousTemplate, null, Material.ARROW));
+        }
+        if (page < pages && nextSlot >= 0 && nextSlot < size) {
+            inventory.setItem(nextSlot, render(nextTemplate, null, Material.ARROW));
+        }
+    }
+
+    private static ItemStack render(ItemTemplate template, Map<String, String> placeholders, Material fallback) {
+        return template != null ? template.render(placeholders) : new ItemStack(fallback);
+    }
+
+    public static int getPreviousSlot() {
+        return previousSlot;
+    }
+
+    public static int getNextSlot() {
+        return nextSlot;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
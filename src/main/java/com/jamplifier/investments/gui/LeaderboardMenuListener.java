@@ -0,0 +1,34 @@
+package com.jamplifier.investments.gui;
+
+import com.jamplifier.investments.util.GuiClickGuard;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+public class LeaderboardMenuListener implements Listener {
+
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getInventory().getHolder() instanceof LeaderboardMenu menu)) {
+            return;
+        }
+
+        event.setCancelled(true);
+
+        if (!(event.getWhoClicked() instanceof Player player)) {
+            return;
+        }
+
+        if (GuiClickGuard.shouldBlock(player)) {
+            return;
+        }
+
+        int rawSlot = event.getRawSlot();
+        if (rawSlot == LeaderboardMenu.getPreviousSlot() && menu.getPage() > 1) {
+            LeaderboardMenu.openFor(player, menu.getLeaderboard(), menu.getPage() - 1);
+        } else if (rawSlot == LeaderboardMenu.getNextSlot() && menu.getPage() < menu.getPages()) {
+            LeaderboardMenu.openFor(player, menu.getLeaderboard(), menu.getPage() + 1);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.jamplifier.investments.investment;
+
+import com.jamplifier.investments.util.MoneyUnits;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Interest rate for one accrual interval, pre-scaled to a long fraction
+ * so the per-investment math is plain long arithmetic.
+ *
+ * interest = invested * percent / 100, truncated to whole cents - exactly
+ * what invested.multiply(percent).divide(100, 2, RoundingMode.DOWN) yields.
+ */
+public final class AccrualRate {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    // 100 * 10^16 is the largest divisor that still fits in a long
+    private static final int MAX_FAST_SCALE = 16;
+
+    private final BigDecimal percent;
+    private final long numerator;
+    private final long divisor;
+    private final boolean fast;
+
+    private AccrualRate(BigDecimal percent, long numerator, long divisor, boolean fast) {
+        this.percent = percent;
+        this.numerator = numerator;
+        this.divisor = divisor;
+        this.fast = fast;
+    }
+
+    /**
+     * @param percent effective percent for one interval (base rate * multipliers * seconds)
+     */
+    public static AccrualRate of(BigDecimal percent) {
+        BigDecimal stripped = percent.stripTrailingZeros();
+        int scale = Math.max(0, stripped.scale());
+
+        if (stripped.signum() > 0 && scale <= MAX_FAST_SCALE) {
+            BigInteger unscaled = stripped.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue();
+            if (unscaled.bitLength() < 63) {
+                long divisor = 100L;
+                for (int i = 0; i < scale; i++) {
+                    divisor *= 10L;
+                }
+                return new AccrualRate(percent, unscaled.longValueExact(), divisor, true);
+            }
+        }
+
+        return new AccrualRate(percent, 0L, 1L, false);
+    }
+
+    /** The percent this rate was built from (for display). */
+    public BigDecimal getPercent() {
+        return percent;
+    }
+
+    /**
+     * Interest earned by the given principal over one interval, in micros,
+     * truncated to whole cents.
+     */
+    public long interestMicros(long investedMicros) {
+        if (investedMicros <= 0) return 0L;
+
+        if (fast) {
+            long lo = investedMicros * numerator;
+            if (Math.multiplyHigh(investedMicros, numerator) == 0L && lo >= 0L) {
+                long micros = lo / divisor;
+                return micros - (micros % MoneyUnits.CENT);
+            }
+        }
+
+        // Rare: rate has too many decimals or the product overflows 63 bits
+        BigDecimal interest = BigDecimal.valueOf(investedMicros, MoneyUnits.SCALE)
+                .multiply(percent)
+                .divide(HUNDRED, 2, RoundingMode.DOWN);
+        return MoneyUnits.fromBigDecimal(interest);
+    }
+}
@@ -3,31 +3,45 @@ package com.jamplifier.investments.investment;
 import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.util.ConfigKeys;
 import com.jamplifier.investments.util.FoliaSchedulerUtil;
-import com.jamplifier.investments.util.MessageUtils;
+import com.jamplifier.investments.util.MessageTemplate;
 import com.jamplifier.investments.util.AmountUtil;
-import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import com.jamplifier.investments.util.MoneyUnits;
 import net.kyori.adventure.text.Component;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class InterestService {
 
+    /**
+     * PERIODIC: every interval, add one interval of profit to each online player's investments.
+     * LAZY: investments remember when they started accruing; profit is worked out
+     *       in closed form when the profile is read (GUI, placeholders, collect, save).
+     */
+    public enum Mode {
+        PERIODIC,
+        LAZY
+    }
+
     private final InvestmentsPlugin plugin;
     private final InvestmentManager investmentManager;
     private final Economy economy;
 
     private BigDecimal ratePercent;
     private long intervalTicks;
+    private Mode mode;
 
     // autocollect config cache
     private boolean autocollectEnabled;
@@ -36,28 +50,69 @@ public class InterestService {
     // multipliers
     private static class MultiplierData {
         final BigDecimal multiplier;
+        final long startMillis;
         final long expiresAtMillis;
 
-        MultiplierData(BigDecimal multiplier, long expiresAtMillis) {
+        MultiplierData(BigDecimal multiplier, long startMillis, long expiresAtMillis) {
             this.multiplier = multiplier;
+            this.startMillis = startMillis;
             this.expiresAtMillis = expiresAtMillis;
         }
+
+        boolean isActiveAt(long time) {
+            return multiplier.compareTo(BigDecimal.ZERO) > 0 && time >= startMillis && time <= expiresAtMillis;
+        }
     }
 
     private final Map<UUID, MultiplierData> playerMultipliers = new ConcurrentHashMap<>();
     private volatile MultiplierData globalMultiplier;
 
-    // scheduler handles
-    private ScheduledTask foliaTask;
-    private BukkitTask bukkitTask;
+    // LAZY mode: timeline for players without a personal multiplier, rebuilt when the global one changes
+    private static final class SharedTimeline {
+        final MultiplierData source;
+        final RateTimeline timeline;
+
+        SharedTimeline(MultiplierData source, RateTimeline timeline) {
+            this.source = source;
+            this.timeline = timeline;
+        }
+    }
+
+    private volatile SharedTimeline sharedTimeline;
+
+    // interval driver; spreads each interval's profiles over several server ticks
+    private volatile InterestTickScheduler<RoundRates> scheduler;
+    private int spreadTicks;
+    private long tickBudgetMicros;
+
+    // PERIODIC only: accrue on worker threads, hand deposits/messages back to the timer
+    private boolean asyncAccrual;
+    private int asyncThreads;
+    private ForkJoinPool asyncPool;
+
+    // rates fixed at the start of a round and passed along with it; immutable so workers can share it
+    private static final class RoundRates {
+        final long startedAt;
+        final BigDecimal seconds;
+        final BigDecimal globalMultiplier;
+        final AccrualRate sharedRate;
+
+        RoundRates(long startedAt, BigDecimal seconds, BigDecimal globalMultiplier, AccrualRate sharedRate) {
+            this.startedAt = startedAt;
+            this.seconds = seconds;
+            this.globalMultiplier = globalMultiplier;
+            this.sharedRate = sharedRate;
+        }
+    }
 
     // notification settings
     private boolean notificationsEnabled;
     private boolean notifyDefaultEnabled;
     private boolean notifyChatEnabled;
     private boolean notifyActionbarEnabled;
-    private String notifyChatMessage;
-    private String notifyActionbarMessage;
+    // compiled once per reload: this runs for every online player every interval
+    private MessageTemplate notifyChatMessage;
+    private MessageTemplate notifyActionbarMessage;
 
     // per-player toggle (override default)
     private final Map<UUID, Boolean> notifyOverrides = new ConcurrentHashMap<>();
@@ -70,28 +125,55 @@ public class InterestService {
     }
 
     public void reloadFromConfig() {
+        // finish any round in progress under the settings it started with
+        cancelTasks();
+
+        // LAZY: pay out everything earned under the old rate before it changes
+        if (mode == Mode.LAZY) {
+            settleAll();
+        }
+
         double rate = plugin.getConfig().getDouble(ConfigKeys.INTEREST_RATE_PERCENT, 1.0D);
         int minutes = plugin.getConfig().getInt(ConfigKeys.INTEREST_INTERVAL_MINUTES, 10);
 
         this.ratePercent = BigDecimal.valueOf(rate);
         this.intervalTicks = Math.max(1L, minutes * 60L * 20L);
+        this.sharedTimeline = null;
 
         var cfg = plugin.getConfig();
 
+        Mode previousMode = mode;
+        String modeName = cfg.getString(ConfigKeys.INTEREST_MODE, "PERIODIC");
+        try {
+            mode = Mode.valueOf(modeName.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            plugin.getLogger().warning("[Investments] Unknown interest.mode '" + modeName + "', using PERIODIC.");
+            mode = Mode.PERIODIC;
+        }
+        if (previousMode != null && previousMode != mode) {
+            switchMode();
+        }
+
         // notifications config
         notificationsEnabled = cfg.getBoolean("notifications.enabled", true);
         notifyDefaultEnabled = cfg.getBoolean("notifications.default-enabled", true);
         notifyChatEnabled = cfg.getBoolean("notifications.chat.enabled", true);
-        notifyChatMessage = cfg.getString("notifications.chat.message",
-                "&8[&aInvestments&8] &7You earned &a%amount% &7profit (&e%rate%%%&7).");
+        notifyChatMessage = MessageTemplate.compile(cfg.getString("notifications.chat.message",
+                "&8[&aInvestments&8] &7You earned &a%amount% &7profit (&e%rate%%%&7)."));
         notifyActionbarEnabled = cfg.getBoolean("notifications.actionbar.enabled", true);
-        notifyActionbarMessage = cfg.getString("notifications.actionbar.message",
-                "&a+%amount% &7investment profit (&e%rate%%%&7)");
+        notifyActionbarMessage = MessageTemplate.compile(cfg.getString("notifications.actionbar.message",
+                "&a+%amount% &7investment profit (&e%rate%%%&7)"));
 
         // autocollect config
         autocollectEnabled = cfg.getBoolean("autocollect.enabled", true);
         autocollectPermission = cfg.getString("autocollect.permission", "investments.autocollect");
 
+        // tick spreading
+        spreadTicks = Math.max(1, cfg.getInt(ConfigKeys.INTEREST_SPREAD_TICKS, 20));
+        tickBudgetMicros = Math.max(0L, cfg.getLong(ConfigKeys.INTEREST_TICK_BUDGET_MICROS, 2000L));
+        asyncAccrual = cfg.getBoolean(ConfigKeys.INTEREST_ASYNC_ACCRUAL, false);
+        asyncThreads = Math.max(0, cfg.getInt(ConfigKeys.INTEREST_ASYNC_THREADS, 0));
+
         restart();
     }
 
@@ -99,53 +181,112 @@ public class InterestService {
         restart();
     }
 
-    private void restart() {
-        if (foliaTask != null) {
-            foliaTask.cancel();
-            foliaTask = null;
+    private void cancelTasks() {
+        if (scheduler != null) {
+            scheduler.stop();
+            scheduler = null;
+        }
+    }
+
+    private void shutdownPool() {
+        if (asyncPool != null) {
+            asyncPool.shutdown();
+            asyncPool = null;
+        }
+    }
+
+    /** Worker pool for async accrual, or null when rounds run on the timer thread. */
+    private ForkJoinPool ensurePool() {
+        if (!asyncAccrual || mode != Mode.PERIODIC) {
+            shutdownPool();
+            return null;
         }
-        if (bukkitTask != null) {
-            bukkitTask.cancel();
-            bukkitTask = null;
+
+        int threads = asyncThreads > 0
+                ? asyncThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        if (asyncPool != null && asyncPool.getParallelism() == threads) {
+            return asyncPool;
         }
 
+        shutdownPool();
+        asyncPool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Investments-Interest-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        return asyncPool;
+    }
+
+    private void restart() {
+        cancelTasks();
+
         if (ratePercent.compareTo(BigDecimal.ZERO) <= 0 || intervalTicks <= 0) {
             plugin.getLogger().warning("[Investments] Interest disabled (rate-percent <= 0 or invalid interval).");
             return;
         }
 
+        ForkJoinPool pool = ensurePool();
+
         plugin.getLogger().info("[Investments] (Re)starting interest task: base rate=" + ratePercent +
-                "% every " + (intervalTicks / 20L) + " seconds.");
-
-        if (FoliaSchedulerUtil.isFolia()) {
-            foliaTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
-                    plugin,
-                    scheduledTask -> tick(),
-                    intervalTicks,
-                    intervalTicks
-            );
-        } else {
-            bukkitTask = Bukkit.getScheduler().runTaskTimer(
-                    plugin,
-                    this::tick,
-                    intervalTicks,
-                    intervalTicks
-            );
-        }
+                "% every " + (intervalTicks / 20L) + " seconds, mode=" + mode +
+                (pool != null
+                        ? ", accruing on " + pool.getParallelism() + " worker threads."
+                        : ", spread over " + spreadTicks + " ticks."));
+
+        scheduler = new InterestTickScheduler<>(
+                plugin,
+                investmentManager::getOnlineProfiles,
+                new InterestTickScheduler.RoundHandler<RoundRates>() {
+                    @Override
+                    public RoundRates beginRound() {
+                        return beginInterestRound();
+                    }
+
+                    @Override
+                    public void process(InvestmentProfile profile, RoundRates rates) {
+                        if (pool != null) {
+                            accrueProfileAsync(profile, rates);
+                        } else if (mode == Mode.LAZY) {
+                            settleForSideEffects(profile);
+                        } else {
+                            accrueProfile(profile, rates);
+                        }
+                    }
+                },
+                intervalTicks,
+                spreadTicks,
+                tickBudgetMicros,
+                pool
+        );
+        scheduler.start();
     }
 
     // ---- Multipliers ----
 
     public void setPlayerMultiplier(UUID uuid, BigDecimal multiplier, int minutes) {
+        if (mode == Mode.LAZY) {
+            // close the segment under the old multiplier before replacing it
+            InvestmentProfile profile = investmentManager.getCachedProfile(uuid);
+            if (profile != null) {
+                settle(profile);
+            }
+        }
+
+        long now = System.currentTimeMillis();
         long durationMillis = Math.max(0, minutes) * 60L * 1000L;
-        long expiresAt = System.currentTimeMillis() + durationMillis;
-        playerMultipliers.put(uuid, new MultiplierData(multiplier, expiresAt));
+        playerMultipliers.put(uuid, new MultiplierData(multiplier, now, now + durationMillis));
     }
 
     public void setGlobalMultiplier(BigDecimal multiplier, int minutes) {
+        if (mode == Mode.LAZY) {
+            settleAll();
+        }
+
+        long now = System.currentTimeMillis();
         long durationMillis = Math.max(0, minutes) * 60L * 1000L;
-        long expiresAt = System.currentTimeMillis() + durationMillis;
-        globalMultiplier = new MultiplierData(multiplier, expiresAt);
+        globalMultiplier = new MultiplierData(multiplier, now, now + durationMillis);
     }
 
     // ---- Notification toggles ----
@@ -165,96 +306,281 @@ public class InterestService {
         return notifyDefaultEnabled;
     }
 
-    private BigDecimal getEffectiveMultiplier(UUID uuid) {
-        long now = System.currentTimeMillis();
-        BigDecimal result = BigDecimal.ONE;
-
+    /** Active global multiplier, or ONE if none. */
+    private BigDecimal getGlobalMultiplier(long now) {
         MultiplierData global = this.globalMultiplier;
         if (global != null) {
             if (now > global.expiresAtMillis) {
                 globalMultiplier = null;
             } else if (global.multiplier.compareTo(BigDecimal.ZERO) > 0) {
-                result = result.multiply(global.multiplier);
+                return global.multiplier;
             }
         }
+        return BigDecimal.ONE;
+    }
 
+    /** Active personal multiplier, or null if none. */
+    private BigDecimal getPlayerMultiplier(UUID uuid, long now) {
         MultiplierData per = playerMultipliers.get(uuid);
         if (per != null) {
             if (now > per.expiresAtMillis) {
                 playerMultipliers.remove(uuid);
             } else if (per.multiplier.compareTo(BigDecimal.ZERO) > 0) {
-                result = result.multiply(per.multiplier);
+                return per.multiplier;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Start of an interval: fix the rates for everyone processed this round,
+     * however late they are processed. Null skips the round.
+     */
+    private RoundRates beginInterestRound() {
+        if (mode == Mode.LAZY && !autocollectEnabled && !notificationsEnabled) {
+            // nothing accrues on the timer in LAZY mode; only side effects need a round
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        BigDecimal seconds = BigDecimal.valueOf(intervalTicks / 20L); // 20 ticks = 1 second
+        // Everyone without a personal multiplier shares one pre-scaled rate
+        BigDecimal global = getGlobalMultiplier(now);
+        return new RoundRates(now, seconds, global,
+                AccrualRate.of(ratePercent.multiply(global).multiply(seconds)));
+    }
+
+    private AccrualRate rateFor(UUID owner, RoundRates rates) {
+        BigDecimal personal = getPlayerMultiplier(owner, rates.startedAt);
+        return personal == null
+                ? rates.sharedRate
+                : AccrualRate.of(ratePercent.multiply(rates.globalMultiplier.multiply(personal)).multiply(rates.seconds));
+    }
+
+    /**
+     * Worker thread: accrue, take auto-collect profit and save. The Vault
+     * deposit and the notification are handed back to the timer thread.
+     */
+    private void accrueProfileAsync(InvestmentProfile profile, RoundRates rates) {
+        UUID owner = profile.getOwner();
+        AccrualRate rate = rateFor(owner, rates);
+
+        long earned;
+        long toCollect = 0L;
+        // one lock so a GUI collect cannot slip in between accrue and take
+        synchronized (profile) {
+            earned = profile.accrue(rate);
+            if (earned <= 0) {
+                return;
+            }
+            if (autocollectEnabled && profile.isAutoCollect()) {
+                toCollect = profile.collectAllProfitMicros();
+            }
+        }
+
+        investmentManager.saveProfile(profile);
+
+        long deposit = toCollect;
+        scheduler.handOff(() -> {
+            if (deposit > 0 && economy != null) {
+                economy.depositPlayer(Bukkit.getOfflinePlayer(owner), MoneyUnits.toBigDecimal(deposit).doubleValue());
             }
+            sendNotification(owner, earned, rate.getPercent());
+        });
+    }
+
+    /** Apply one interval of interest, ONLY if the owner is currently online. */
+    private void accrueProfile(InvestmentProfile profile, RoundRates rates) {
+        UUID owner = profile.getOwner();
+
+        // skip offline players, so they do not earn profit
+        Player player = Bukkit.getPlayer(owner);
+        if (player == null || !player.isOnline()) {
+            return;
         }
 
-        return result;
+        AccrualRate rate = rateFor(owner, rates);
+
+        long earnedThisTick = profile.accrue(rate);
+        if (earnedThisTick <= 0) {
+            return;
+        }
+
+        applyEarnings(profile, player, earnedThisTick, rate.getPercent());
     }
 
-    /** Apply interest ONLY to players who are currently online. */
-    private void tick() {
-        BigDecimal hundred = BigDecimal.valueOf(100);
+    /**
+     * LAZY mode: nothing accrues here. Only profiles that need a side effect
+     * (auto-collect or a notification) are settled; everyone else is settled
+     * when their profile is next read.
+     */
+    private void settleForSideEffects(InvestmentProfile profile) {
+        UUID owner = profile.getOwner();
+
+        boolean wantsCollect = autocollectEnabled && profile.isAutoCollect();
+        boolean wantsNotify = notificationsEnabled && isNotifyEnabled(owner);
+        if (!wantsCollect && !wantsNotify) {
+            return;
+        }
 
-        long secondsThisTick = intervalTicks / 20L; // 20 ticks = 1 second
-        BigDecimal secondsBD = BigDecimal.valueOf(secondsThisTick);
+        Player player = Bukkit.getPlayer(owner);
+        if (player == null || !player.isOnline()) {
+            return;
+        }
 
-        for (InvestmentProfile profile : investmentManager.getLoadedProfiles()) {
-            UUID owner = profile.getOwner();
+        long earned = settle(profile);
+        if (earned <= 0) {
+            return;
+        }
+
+        BigDecimal rateNow = timelineFor(owner).rateAt(System.currentTimeMillis()).getPercent();
+        applyEarnings(profile, player, earned, rateNow);
+    }
 
-            // >>> NEW: skip offline players, so they do not earn profit
-            Player player = Bukkit.getPlayer(owner);
-            if (player == null || !player.isOnline()) {
-                continue;
+    private void applyEarnings(InvestmentProfile profile, Player player, long earnedMicros, BigDecimal rate) {
+        long toCollect = 0L;
+        if (autocollectEnabled && profile.isAutoCollect()) {
+            toCollect = profile.collectAllProfitMicros();
+
+            if (toCollect > 0 && economy != null) {
+                // player is online here, but depositing via OfflinePlayer is fine
+                OfflinePlayer offline = player;
+                economy.depositPlayer(offline, MoneyUnits.toBigDecimal(toCollect).doubleValue());
             }
-            // <<<
+        }
 
-            boolean changed = false;
-            BigDecimal earnedThisTick = BigDecimal.ZERO;
+        // LAZY: profit that only moved in memory is written on quit, eviction or
+        // shutdown; save now only when money left the profile
+        if (mode != Mode.LAZY || toCollect > 0) {
+            investmentManager.saveProfile(profile);
+        }
+        sendNotification(profile.getOwner(), earnedMicros, rate);
+    }
 
-            BigDecimal multiplier = getEffectiveMultiplier(owner);
+    // ---- LAZY accrual ----
 
-            BigDecimal effectiveRateForTick = ratePercent
-                    .multiply(multiplier)
-                    .multiply(secondsBD);
+    public Mode getMode() {
+        return mode;
+    }
 
-            for (Investment inv : profile.getInvestments()) {
-                if (inv.getInvested().compareTo(BigDecimal.ZERO) <= 0) continue;
+    /**
+     * LAZY mode: bring the profile's profit up to date. No-op in PERIODIC mode.
+     *
+     * @return profit credited by this call, in micros
+     */
+    public long settle(InvestmentProfile profile) {
+        if (mode != Mode.LAZY || !profile.isAccruing() || ratePercent.signum() <= 0) {
+            return 0L;
+        }
+        return profile.settle(timelineFor(profile.getOwner()), intervalTicks * 50L, System.currentTimeMillis());
+    }
 
-                BigDecimal interest = inv.getInvested()
-                        .multiply(effectiveRateForTick)
-                        .divide(hundred, 2, RoundingMode.DOWN);
+    /** Owner is online (joined, or profile loaded while online): start accruing. */
+    public void resume(InvestmentProfile profile) {
+        if (mode != Mode.LAZY) return;
+        profile.resumeAccrual(System.currentTimeMillis());
+    }
 
-                if (interest.compareTo(BigDecimal.ZERO) > 0) {
-                    inv.addProfit(interest);
-                    earnedThisTick = earnedThisTick.add(interest);
-                    changed = true;
+    /** Owner went offline: pay out whole intervals, stop accruing and persist. */
+    public void pause(InvestmentProfile profile) {
+        if (mode != Mode.LAZY) return;
+        settle(profile);
+        profile.pauseAccrual();
+        investmentManager.saveProfile(profile);
+
+        UUID owner = profile.getOwner();
+        MultiplierData personal = playerMultipliers.get(owner);
+        if (personal != null && System.currentTimeMillis() > personal.expiresAtMillis) {
+            playerMultipliers.remove(owner, personal);
+        }
+    }
+
+    /** Stop the task and, in LAZY mode, persist everything earned so far. */
+    public void shutdown() {
+        cancelTasks();
+        shutdownPool();
+        if (mode == Mode.LAZY) {
+            for (InvestmentProfile profile : investmentManager.getOnlineProfiles()) {
+                settle(profile);
+                // includes profit settled earlier for notifications only
+                if (profile.hasUnsavedChanges()) {
+                    investmentManager.saveProfile(profile);
                 }
             }
+        }
+    }
 
-            if (!changed) {
-                continue;
+    private void settleAll() {
+        // only online owners accrue
+        for (InvestmentProfile profile : investmentManager.getOnlineProfiles()) {
+            settle(profile);
+        }
+    }
+
+    private void switchMode() {
+        long now = System.currentTimeMillis();
+        for (InvestmentProfile profile : investmentManager.getOnlineProfiles()) {
+            if (mode == Mode.LAZY) {
+                profile.resumeAccrual(now);
+            } else {
+                profile.pauseAccrual();
             }
+        }
+    }
 
-            if (autocollectEnabled && profile.isAutoCollect()) {
-                BigDecimal toCollect = profile.collectAllProfit();
+    private RateTimeline timelineFor(UUID owner) {
+        MultiplierData personal = playerMultipliers.get(owner);
+        if (personal != null) {
+            return buildTimeline(globalMultiplier, personal);
+        }
 
-                if (toCollect.compareTo(BigDecimal.ZERO) > 0 && economy != null) {
-                    // player is online here, but depositing via OfflinePlayer is fine
-                    OfflinePlayer offline = player;
-                    economy.depositPlayer(offline, toCollect.doubleValue());
-                }
+        MultiplierData global = globalMultiplier;
+        SharedTimeline shared = sharedTimeline;
+        if (shared == null || shared.source != global) {
+            shared = new SharedTimeline(global, buildTimeline(global, null));
+            sharedTimeline = shared;
+        }
+        return shared.timeline;
+    }
 
-                investmentManager.saveProfile(profile);
-            } else {
-                investmentManager.saveProfile(profile);
+    /** One segment per change point (a multiplier starting or expiring). */
+    private RateTimeline buildTimeline(MultiplierData global, MultiplierData personal) {
+        BigDecimal secondsBD = BigDecimal.valueOf(intervalTicks / 20L);
+
+        TreeSet<Long> points = new TreeSet<>();
+        for (MultiplierData data : new MultiplierData[]{global, personal}) {
+            if (data != null) {
+                points.add(data.startMillis);
+                points.add(data.expiresAtMillis + 1L);
             }
+        }
 
-            sendNotification(owner, earnedThisTick, effectiveRateForTick);
+        long[] starts = new long[points.size() + 1];
+        AccrualRate[] rates = new AccrualRate[starts.length];
+        starts[0] = Long.MIN_VALUE;
+        // before the first change point no multiplier has started yet
+        rates[0] = AccrualRate.of(ratePercent.multiply(BigDecimal.ONE).multiply(secondsBD));
+
+        int i = 1;
+        for (long point : points) {
+            BigDecimal multiplier = BigDecimal.ONE;
+            if (global != null && global.isActiveAt(point)) {
+                multiplier = multiplier.multiply(global.multiplier);
+            }
+            if (personal != null && personal.isActiveAt(point)) {
+                multiplier = multiplier.multiply(personal.multiplier);
+            }
+            starts[i] = point;
+            rates[i] = AccrualRate.of(ratePercent.multiply(multiplier).multiply(secondsBD));
+            i++;
         }
+
+        return new RateTimeline(starts, rates);
     }
 
-    private void sendNotification(UUID uuid, BigDecimal amount, BigDecimal rate) {
+    private void sendNotification(UUID uuid, long amountMicros, BigDecimal rate) {
         if (!notificationsEnabled) return;
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) return;
+        if (amountMicros <= 0) return;
         if (!isNotifyEnabled(uuid)) return;
 
         Player player = Bukkit.getPlayer(uuid);
@@ -262,7 +588,9 @@ public class InterestService {
 
         Map<String, String> placeholders = new HashMap<>();
 
-        String amountShort = AmountUtil.formatShort(amount);
+        BigDecimal amount = MoneyUnits.toBigDecimal(amountMicros);
+
+        String amountShort = AmountUtil.formatShortMicros(amountMicros);
         String amountFull = amount.setScale(2, RoundingMode.DOWN)
                 .stripTrailingZeros()
                 .toPlainString();
@@ -272,23 +600,22 @@ public class InterestService {
         placeholders.put("amount_full", amountFull);
         placeholders.put("rate", rate.toPlainString());
 
-        FoliaSchedulerUtil.runForEntity(player, () -> {
+        Runnable send = () -> {
             if (notifyChatEnabled) {
-                String msg = notifyChatMessage;
-                for (Map.Entry<String, String> e : placeholders.entrySet()) {
-                    msg = msg.replace("%" + e.getKey() + "%", e.getValue());
-                }
-                player.sendMessage(MessageUtils.color(msg));
+                player.sendMessage(notifyChatMessage.render(placeholders));
             }
 
             if (notifyActionbarEnabled) {
-                String msg = notifyActionbarMessage;
-                for (Map.Entry<String, String> e : placeholders.entrySet()) {
-                    msg = msg.replace("%" + e.getKey() + "%", e.getValue());
-                }
-                player.sendActionBar(Component.text(MessageUtils.color(msg)));
+                player.sendActionBar(Component.text(notifyActionbarMessage.render(placeholders)));
             }
-        });
+        };
+
+        // already on the main thread (timer / hand-off): no need to wait another tick
+        if (!FoliaSchedulerUtil.isFolia() && Bukkit.isPrimaryThread()) {
+            send.run();
+        } else {
+            FoliaSchedulerUtil.runForEntity(player, send);
+        }
     }
 
     public BigDecimal getRatePercent() {
@@ -0,0 +1,280 @@
+package com.jamplifier.investments.investment;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import com.jamplifier.investments.util.FoliaSchedulerUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the interest interval on a 1-tick timer (global region on Folia).
+ *
+ * Each time an interval elapses, the loaded profiles are snapshotted into a
+ * "round". The round is then worked through over the next {@code spreadTicks}
+ * server ticks, a bucket per tick. A tick stops early once its time budget is
+ * used up; the next tick resumes at the same position and catches up.
+ * Every profile is still processed exactly once per interval.
+ *
+ * With an async executor, a round is instead partitioned across worker
+ * threads. Workers hand main-thread-only work (Vault deposits, messages)
+ * back through {@link #handOff(Runnable)}; that queue is drained on the
+ * timer in batches under the same per-tick budget.
+ */
+final class InterestTickScheduler<R> {
+
+    /** {@code R} is whatever a round needs fixed at its start (rates); it is handed to every process call. */
+    interface RoundHandler<R> {
+        /** Called when an interval elapses. Return null to skip this round. */
+        R beginRound();
+
+        void process(InvestmentProfile profile, R round);
+    }
+
+    // chunks per worker thread, so uneven profiles still balance out
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long STOP_TIMEOUT_SECONDS = 10L;
+
+    private static final InvestmentProfile[] EMPTY = new InvestmentProfile[0];
+
+    private final InvestmentsPlugin plugin;
+    private final Supplier<Iterable<InvestmentProfile>> profiles;
+    private final RoundHandler<R> handler;
+    private final long intervalTicks;
+    private final int spreadTicks;
+    private final long budgetNanos;
+    private final ForkJoinPool asyncPool;
+    private final Queue<Runnable> handoff = new ConcurrentLinkedQueue<>();
+    private CompletableFuture<Void> asyncRound = CompletableFuture.completedFuture(null);
+
+    private ScheduledTask foliaTask;
+    private BukkitTask bukkitTask;
+
+    // only touched from the timer (global region / main thread)
+    private long ticksUntilRound;
+    private InvestmentProfile[] round = EMPTY;
+    private R roundContext;
+    private int cursor;
+    private int perTick;
+    private int ticksIntoRound;
+
+    InterestTickScheduler(InvestmentsPlugin plugin,
+                          Supplier<Iterable<InvestmentProfile>> profiles,
+                          RoundHandler<R> handler,
+                          long intervalTicks,
+                          int spreadTicks,
+                          long budgetMicros,
+                          ForkJoinPool asyncPool) {
+        this.plugin = plugin;
+        this.profiles = profiles;
+        this.handler = handler;
+        this.intervalTicks = intervalTicks;
+        this.spreadTicks = (int) Math.max(1L, Math.min(spreadTicks, intervalTicks));
+        this.budgetNanos = Math.max(0L, budgetMicros) * 1000L;
+        this.asyncPool = asyncPool;
+    }
+
+    /** Queue work that must run on the timer thread (main / global region). Thread-safe. */
+    void handOff(Runnable task) {
+        handoff.add(task);
+    }
+
+    void start() {
+        ticksUntilRound = intervalTicks;
+
+        if (FoliaSchedulerUtil.isFolia()) {
+            foliaTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin,
+                    scheduledTask -> onServerTick(),
+                    1L,
+                    1L
+            );
+        } else {
+            bukkitTask = Bukkit.getScheduler().runTaskTimer(
+                    plugin,
+                    this::onServerTick,
+                    1L,
+                    1L
+            );
+        }
+    }
+
+    void stop() {
+        if (foliaTask != null) {
+            foliaTask.cancel();
+            foliaTask = null;
+        }
+        if (bukkitTask != null) {
+            bukkitTask.cancel();
+            bukkitTask = null;
+        }
+
+        // reload or disable mid-round: pay the rest of the interval too, not only
+        // the profiles before the cursor
+        finishRound();
+
+        if (!asyncRound.isDone()) {
+            // let the workers finish, so their payouts land in the queue below
+            try {
+                asyncRound.get(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException ex) {
+                plugin.getLogger().warning("[Investments] Async interest round did not finish cleanly: " + ex);
+            }
+        }
+
+        // run whatever the workers already handed back, so nothing is lost
+        Runnable task;
+        while ((task = handoff.poll()) != null) {
+            runSafely(task);
+        }
+    }
+
+    private void onServerTick() {
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+
+        if (--ticksUntilRound <= 0) {
+            ticksUntilRound = intervalTicks;
+            startRound();
+        }
+
+        if (!handoff.isEmpty()) {
+            drainHandoff(deadline);
+        }
+
+        if (cursor < round.length) {
+            runBucket(deadline);
+        }
+    }
+
+    private void drainHandoff(long deadline) {
+        Runnable task;
+        while ((task = handoff.poll()) != null) {
+            runSafely(task);
+            if (budgetNanos > 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            plugin.getLogger().severe("[Investments] Error in interest hand-off task: " + ex.getMessage());
+        }
+    }
+
+    private void startRound() {
+        if (cursor < round.length) {
+            // Budget was too small to finish last interval; finish it now so nobody misses a payout
+            plugin.getLogger().warning("[Investments] Interest round for " + round.length
+                    + " profiles did not finish within the interval; completing it now. "
+                    + "Consider raising interest.scheduler.tick-budget-micros.");
+        }
+        finishRound();
+
+        R context = handler.beginRound();
+        if (context == null) {
+            return;
+        }
+
+        List<InvestmentProfile> snapshot = new ArrayList<>();
+        for (InvestmentProfile profile : profiles.get()) {
+            snapshot.add(profile);
+        }
+
+        if (asyncPool != null) {
+            submitAsync(snapshot.toArray(EMPTY), context);
+            return;
+        }
+
+        round = snapshot.toArray(EMPTY);
+        roundContext = context;
+        perTick = Math.max(1, (round.length + spreadTicks - 1) / spreadTicks);
+        ticksIntoRound = 0;
+    }
+
+    /**
+     * Partition the round across the pool. A round that starts while the
+     * previous one is still running waits for it, so intervals never overlap.
+     * The round's context is captured here: by the time a late round runs,
+     * the next one may already have begun.
+     */
+    private void submitAsync(InvestmentProfile[] profiles, R context) {
+        if (profiles.length == 0) {
+            return;
+        }
+
+        int chunks = Math.min(profiles.length, asyncPool.getParallelism() * CHUNKS_PER_THREAD);
+        int chunkSize = (profiles.length + chunks - 1) / chunks;
+
+        asyncRound = asyncRound.thenCompose(ignored -> {
+            List<CompletableFuture<Void>> parts = new ArrayList<>();
+            for (int from = 0; from < profiles.length; from += chunkSize) {
+                int start = from;
+                int end = Math.min(profiles.length, from + chunkSize);
+                parts.add(CompletableFuture.runAsync(() -> {
+                    for (int i = start; i < end; i++) {
+                        process(profiles[i], context);
+                    }
+                }, asyncPool));
+            }
+            return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    private void runBucket(long deadline) {
+        ticksIntoRound++;
+        // catch up on buckets a previous tick could not finish
+        long target = Math.min(round.length, (long) ticksIntoRound * perTick);
+
+        while (cursor < target) {
+            processNext();
+            if (budgetNanos > 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        if (cursor >= round.length) {
+            round = EMPTY;
+            roundContext = null;
+            cursor = 0;
+        }
+    }
+
+    /** Process what is left of the current round right away, then clear it. */
+    private void finishRound() {
+        while (cursor < round.length) {
+            processNext();
+        }
+        round = EMPTY;
+        roundContext = null;
+        cursor = 0;
+    }
+
+    private void processNext() {
+        InvestmentProfile profile = round[cursor];
+        round[cursor++] = null;
+        process(profile, roundContext);
+    }
+
+    private void process(InvestmentProfile profile, R context) {
+        try {
+            handler.process(profile, context);
+        } catch (RuntimeException ex) {
+            plugin.getLogger().severe("[Investments] Error applying interest for " + profile.getOwner() + ": " + ex.getMessage());
+        }
+    }
+}
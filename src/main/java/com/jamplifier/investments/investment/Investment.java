@@ -1,18 +1,49 @@
 package com.jamplifier.investments.investment;
 
+import com.jamplifier.investments.util.MoneyUnits;
+
 import java.math.BigDecimal;
 import java.util.UUID;
 
+/**
+ * Amounts are kept as long micro-units (see {@link MoneyUnits});
+ * the BigDecimal accessors are for storage and display.
+ *
+ * Each change bumps a version, so storage can tell which rows actually
+ * need writing (see {@link InvestmentProfile#snapshot()}).
+ */
 public class Investment {
 
     private final UUID owner;
-    private BigDecimal invested;
-    private BigDecimal profit;
+    private long investedMicros;
+    private long profitMicros;
+
+    // storage row id (SQL backends); 0 until the row is inserted
+    private long id;
+    // true once this investment exists in storage
+    private boolean persisted;
+    private long version;
+    private long persistedVersion;
+    private long persistedInvestedMicros;
+    // LAZY mode: start of the current (not yet paid) interval, 0 while not accruing
+    private long accrualAnchorMillis;
 
     public Investment(UUID owner, BigDecimal invested, BigDecimal profit) {
+        this(owner, MoneyUnits.fromBigDecimal(invested), MoneyUnits.fromBigDecimal(profit));
+    }
+
+    public Investment(UUID owner, long investedMicros, long profitMicros) {
         this.owner = owner;
-        this.invested = invested == null ? BigDecimal.ZERO : invested;
-        this.profit = profit == null ? BigDecimal.ZERO : profit;
+        this.investedMicros = investedMicros;
+        this.profitMicros = profitMicros;
+    }
+
+    /** Loaded from storage: starts out clean. {@code id} is 0 for backends without row ids. */
+    public Investment(UUID owner, long id, BigDecimal invested, BigDecimal profit) {
+        this(owner, invested, profit);
+        this.id = id;
+        this.persisted = true;
+        this.persistedInvestedMicros = investedMicros;
     }
 
     public UUID getOwner() {
@@ -20,29 +51,91 @@ public class Investment {
     }
 
     public BigDecimal getInvested() {
-        return invested;
+        return MoneyUnits.toBigDecimal(investedMicros);
+    }
+
+    public long getInvestedMicros() {
+        return investedMicros;
     }
 
     public void addInvested(BigDecimal amount) {
         if (amount == null || amount.signum() <= 0) return;
-        this.invested = this.invested.add(amount);
+        this.investedMicros = MoneyUnits.add(this.investedMicros, MoneyUnits.fromBigDecimal(amount));
+        version++;
     }
 
     public BigDecimal getProfit() {
-        return profit;
+        return MoneyUnits.toBigDecimal(profitMicros);
+    }
+
+    public long getProfitMicros() {
+        return profitMicros;
     }
 
     public void addProfit(BigDecimal amount) {
         if (amount == null || amount.signum() <= 0) return;
-        this.profit = this.profit.add(amount);
+        addProfitMicros(MoneyUnits.fromBigDecimal(amount));
+    }
+
+    public void addProfitMicros(long micros) {
+        if (micros <= 0) return;
+        this.profitMicros = MoneyUnits.add(this.profitMicros, micros);
+        version++;
+    }
+
+    long getAccrualAnchorMillis() {
+        return accrualAnchorMillis;
+    }
+
+    void setAccrualAnchorMillis(long accrualAnchorMillis) {
+        this.accrualAnchorMillis = accrualAnchorMillis;
     }
 
     /**
      * Take all current profit and reset it to zero.
      */
     public BigDecimal takeProfit() {
-        BigDecimal taken = this.profit;
-        this.profit = BigDecimal.ZERO;
+        return MoneyUnits.toBigDecimal(takeProfitMicros());
+    }
+
+    public long takeProfitMicros() {
+        long taken = this.profitMicros;
+        if (taken != 0L) {
+            this.profitMicros = 0L;
+            version++;
+        }
         return taken;
     }
+
+    // --- persistence state (guarded by the owning profile's lock) ---
+
+    public long getId() {
+        return id;
+    }
+
+    boolean isPersisted() {
+        return persisted;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    boolean isDirty() {
+        return !persisted || version != persistedVersion;
+    }
+
+    boolean isInvestedDirty() {
+        return !persisted || investedMicros != persistedInvestedMicros;
+    }
+
+    /** Storage wrote this investment as it was at {@code writtenVersion}. */
+    void markPersisted(long assignedId, long writtenVersion, long writtenInvestedMicros) {
+        if (assignedId > 0) {
+            this.id = assignedId;
+        }
+        this.persisted = true;
+        this.persistedVersion = writtenVersion;
+        this.persistedInvestedMicros = writtenInvestedMicros;
+    }
 }
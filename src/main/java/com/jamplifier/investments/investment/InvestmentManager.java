@@ -2,37 +2,379 @@ package com.jamplifier.investments.investment;
 
 import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.WriteBehindQueue;
+import com.jamplifier.investments.util.ConfigKeys;
+import com.jamplifier.investments.util.FoliaSchedulerUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class InvestmentManager {
 
     private final InvestmentsPlugin plugin;
     private final InvestmentStorage storage;
+    private final WriteBehindQueue writeQueue;
     private final MaxInvestPermissionService maxInvestPermissionService;
+    private final Leaderboard leaderboard;
+    private final StatsService stats;
 
     private final Map<UUID, InvestmentProfile> cache = new ConcurrentHashMap<>();
+    // subset of the cache whose owners are online; what the interest round walks
+    private final OnlineProfileIndex onlineProfiles = new OnlineProfileIndex();
+    // loads in flight, so concurrent callers share one storage read
+    private final Map<UUID, CompletableFuture<InvestmentProfile>> loading = new ConcurrentHashMap<>();
+    // kept by join/quit, so a load finishing off the main thread need not ask Bukkit
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+    // quit players waiting for their last save before eviction
+    private final Queue<UUID> quitEvictions = new ConcurrentLinkedQueue<>();
 
-    public InvestmentManager(InvestmentsPlugin plugin, InvestmentStorage storage) {
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+
+    private volatile int cacheMaxSize;
+    private volatile long cacheIdleMillis;
+    private volatile boolean evictOnQuit;
+    private ScheduledTask foliaSweepTask;
+    private BukkitTask bukkitSweepTask;
+
+    // set once the interest service exists; used to settle LAZY accrual on read
+    private InterestService interestService;
+
+    public InvestmentManager(InvestmentsPlugin plugin, InvestmentStorage storage, WriteBehindQueue writeQueue) {
         this.plugin = plugin;
         this.storage = storage;
+        this.writeQueue = writeQueue;
         this.maxInvestPermissionService = new MaxInvestPermissionService(plugin);
+        this.leaderboard = new Leaderboard(plugin, storage);
+        this.stats = new StatsService(plugin, storage, this);
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public StatsService getStats() {
+        return stats;
     }
 
+    public void setInterestService(InterestService interestService) {
+        this.interestService = interestService;
+    }
+
+    /**
+     * Loaded (and settled) profile, loading it from storage first if needed.
+     * May block on storage: keep it off hot paths, see {@link #getProfileIfLoaded(UUID)}.
+     */
     public InvestmentProfile getProfile(UUID uuid) {
-        return cache.computeIfAbsent(uuid, id -> {
-            InvestmentProfile profile = new InvestmentProfile(id);
-            profile.load(storage);
-            return profile;
+        InvestmentProfile profile = lookup(uuid);
+        if (profile == null) {
+            profile = load(uuid, false).join();
+        }
+
+        if (interestService != null) {
+            interestService.settle(profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Never does I/O: the settled profile if it is loaded, otherwise null
+     * while a background load is started.
+     */
+    public InvestmentProfile getProfileIfLoaded(UUID uuid) {
+        InvestmentProfile profile = lookup(uuid);
+        if (profile == null) {
+            load(uuid, true);
+            return null;
+        }
+
+        if (interestService != null) {
+            interestService.settle(profile);
+        }
+        return profile;
+    }
+
+    private InvestmentProfile lookup(UUID uuid) {
+        InvestmentProfile profile = cache.get(uuid);
+        if (profile == null) {
+            cacheMisses.increment();
+            return null;
+        }
+        cacheHits.increment();
+        profile.touch(System.currentTimeMillis());
+        return profile;
+    }
+
+    /** Load on the calling thread, e.g. during AsyncPlayerPreLoginEvent. */
+    public void preload(UUID uuid) {
+        if (!cache.containsKey(uuid)) {
+            load(uuid, false).join();
+        }
+    }
+
+    /** After enable (e.g. /reload): players already online are loaded in the background. */
+    public void preloadOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            onlinePlayers.add(player.getUniqueId());
+            load(player.getUniqueId(), true);
+        }
+    }
+
+    private CompletableFuture<InvestmentProfile> load(UUID uuid, boolean async) {
+        CompletableFuture<InvestmentProfile> future = new CompletableFuture<>();
+        CompletableFuture<InvestmentProfile> inFlight = loading.putIfAbsent(uuid, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        // it may have finished between the caller's cache miss and claiming the slot
+        InvestmentProfile cached = cache.get(uuid);
+        if (cached != null) {
+            loading.remove(uuid, future);
+            future.complete(cached);
+            return future;
+        }
+
+        Runnable task = () -> {
+            try {
+                InvestmentProfile loaded = new InvestmentProfile(uuid);
+                loaded.load(storage);
+                loaded.setTotalsListener(stats);
+                cache.put(uuid, loaded);
+                leaderboard.update(uuid, loaded.getTotalInvestedMicros());
+                publishIfOnline(loaded);
+                future.complete(loaded);
+            } catch (RuntimeException ex) {
+                plugin.getLogger().severe("[Investments] Error loading profile for " + uuid + ": " + ex.getMessage());
+                future.completeExceptionally(ex);
+            } finally {
+                loading.remove(uuid, future);
+            }
+        };
+
+        if (async) {
+            FoliaSchedulerUtil.runAsync(task);
+        } else {
+            task.run();
+        }
+        return future;
+    }
+
+    /**
+     * Read-only copy straight from storage, loaded in the background. It is
+     * not cached, not settled and never saved; for display only.
+     */
+    public CompletableFuture<InvestmentProfile> loadDetached(UUID uuid) {
+        CompletableFuture<InvestmentProfile> future = new CompletableFuture<>();
+        FoliaSchedulerUtil.runAsync(() -> {
+            try {
+                InvestmentProfile detached = new InvestmentProfile(uuid);
+                detached.load(storage);
+                future.complete(detached);
+            } catch (RuntimeException ex) {
+                plugin.getLogger().severe("[Investments] Error loading offline profile for " + uuid + ": " + ex.getMessage());
+                future.completeExceptionally(ex);
+            }
         });
+        return future;
+    }
+
+    private void publishIfOnline(InvestmentProfile profile) {
+        UUID owner = profile.getOwner();
+        if (!onlinePlayers.contains(owner)) {
+            return;
+        }
+
+        onlineProfiles.add(profile);
+        if (interestService != null) {
+            interestService.resume(profile);
+        }
+
+        // quit while we were adding it
+        if (!onlinePlayers.contains(owner)) {
+            onlineProfiles.remove(owner);
+        }
+    }
+
+    /** Cached profile without loading or settling it, or null. */
+    public InvestmentProfile getCachedProfile(UUID uuid) {
+        return cache.get(uuid);
+    }
+
+    /** Owner joined: start tracking their cached profile (if any) as online. */
+    public InvestmentProfile markOnline(UUID uuid) {
+        // set first, cache second: a load finishing concurrently sees one or the other
+        onlinePlayers.add(uuid);
+        InvestmentProfile profile = cache.get(uuid);
+        if (profile != null) {
+            onlineProfiles.add(profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Owner quit: the profile is no longer visited by the interest round,
+     * and is evicted by a later sweep once its changes are saved.
+     */
+    public void markOffline(UUID uuid) {
+        onlinePlayers.remove(uuid);
+        onlineProfiles.remove(uuid);
+        if (evictOnQuit) {
+            quitEvictions.add(uuid);
+        }
+    }
+
+    /** (Re)read the cache limits and restart the sweeper. */
+    public synchronized void reloadCacheSettings() {
+        FileConfiguration cfg = plugin.getConfig();
+
+        cacheMaxSize = Math.max(1, cfg.getInt(ConfigKeys.CACHE_MAX_SIZE, 2000));
+        cacheIdleMillis = TimeUnit.MINUTES.toMillis(Math.max(1L, cfg.getLong(ConfigKeys.CACHE_IDLE_MINUTES, 15L)));
+        evictOnQuit = cfg.getBoolean(ConfigKeys.CACHE_EVICT_ON_QUIT, true);
+        long sweepSeconds = Math.max(1L, cfg.getLong(ConfigKeys.CACHE_SWEEP_SECONDS, 30L));
+
+        stopCacheSweeper();
+        if (FoliaSchedulerUtil.isFolia()) {
+            foliaSweepTask = Bukkit.getAsyncScheduler().runAtFixedRate(
+                    plugin,
+                    scheduledTask -> sweepCacheSafely(),
+                    sweepSeconds,
+                    sweepSeconds,
+                    TimeUnit.SECONDS
+            );
+        } else {
+            bukkitSweepTask = Bukkit.getScheduler().runTaskTimerAsynchronously(
+                    plugin,
+                    this::sweepCacheSafely,
+                    sweepSeconds * 20L,
+                    sweepSeconds * 20L
+            );
+        }
+    }
+
+    public synchronized void stopCacheSweeper() {
+        if (foliaSweepTask != null) {
+            foliaSweepTask.cancel();
+            foliaSweepTask = null;
+        }
+        if (bukkitSweepTask != null) {
+            bukkitSweepTask.cancel();
+            bukkitSweepTask = null;
+        }
+    }
+
+    private void sweepCacheSafely() {
+        try {
+            sweepCache();
+        } catch (RuntimeException ex) {
+            plugin.getLogger().severe("[Investments] Error sweeping profile cache: " + ex.getMessage());
+        }
+    }
+
+    /** Runs off the main thread. Only offline profiles are candidates. */
+    private void sweepCache() {
+        // quit players first; the ones still saving are retried next sweep
+        int quits = quitEvictions.size();
+        for (int i = 0; i < quits; i++) {
+            UUID uuid = quitEvictions.poll();
+            if (uuid == null) break;
+
+            InvestmentProfile profile = cache.get(uuid);
+            if (profile == null || onlinePlayers.contains(uuid)) continue;
+            if (!tryEvict(profile)) {
+                quitEvictions.add(uuid);
+            }
+        }
+
+        List<InvestmentProfile> offline = new ArrayList<>();
+        for (InvestmentProfile profile : cache.values()) {
+            if (!onlinePlayers.contains(profile.getOwner())) {
+                offline.add(profile);
+            }
+        }
+        if (offline.isEmpty()) {
+            return;
+        }
+
+        // least recently used first, so the size limit drops the coldest profiles
+        offline.sort(Comparator.comparingLong(InvestmentProfile::getLastAccessMillis));
+
+        long idleBefore = System.currentTimeMillis() - cacheIdleMillis;
+        int excess = cache.size() - cacheMaxSize;
+        for (InvestmentProfile profile : offline) {
+            if (excess <= 0 && profile.getLastAccessMillis() > idleBefore) {
+                break;
+            }
+            if (tryEvict(profile)) {
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Drop the profile if storage already holds its state. Otherwise make
+     * sure a save is queued and leave it for a later sweep.
+     */
+    private boolean tryEvict(InvestmentProfile profile) {
+        UUID owner = profile.getOwner();
+        if (writeQueue.isPending(owner)) {
+            return false;
+        }
+        if (profile.hasUnsavedChanges()) {
+            writeQueue.save(owner, profile::snapshot);
+            return false;
+        }
+
+        if (!cache.remove(owner, profile)) {
+            return false;
+        }
+
+        // changed or came back online between the check and the removal: keep it
+        if (onlinePlayers.contains(owner) || profile.hasUnsavedChanges()) {
+            cache.putIfAbsent(owner, profile);
+            publishIfOnline(profile);
+            return false;
+        }
+
+        cacheEvictions.increment();
+        return true;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getCacheEvictions() {
+        return cacheEvictions.sum();
     }
 
     public void saveProfile(InvestmentProfile profile) {
-        profile.save(storage);
+        if (interestService != null) {
+            interestService.settle(profile);
+        }
+        writeQueue.save(profile.getOwner(), profile::snapshot);
+        leaderboard.update(profile.getOwner(), profile.getTotalInvestedMicros());
     }
 
     public int getMaxInvestments(Player player) {
@@ -47,11 +389,8 @@ public class InvestmentManager {
      * - If both are <= 0, this means "no cap" and BigDecimal.ZERO is returned.
      */
     public BigDecimal getMaxTotalAmount(Player player) {
-        // default from config: 0 or negative means "no cap"
-        double defaultMaxDouble = plugin.getConfig().getDouble("default-max-invest-amount", 0.0D);
-        BigDecimal defaultMax = defaultMaxDouble > 0
-                ? BigDecimal.valueOf(defaultMaxDouble)
-                : BigDecimal.ZERO;
+        // default from config: ZERO means "no cap"
+        BigDecimal defaultMax = plugin.getSettings().getDefaultMaxInvestAmount();
 
         BigDecimal permMax = maxInvestPermissionService.getMaxTotalAmount(player);
         if (permMax != null && permMax.compareTo(BigDecimal.ZERO) > 0) {
@@ -65,11 +404,15 @@ public class InvestmentManager {
         maxInvestPermissionService.reload();
     }
 
+    public void invalidatePermissionLimits(UUID uuid) {
+        maxInvestPermissionService.invalidate(uuid);
+    }
+
     public boolean addInvestment(Player player, BigDecimal amount) {
         InvestmentProfile profile = getProfile(player.getUniqueId());
         int max = getMaxInvestments(player);
 
-        if (max > 0 && profile.getInvestments().size() >= max) {
+        if (max > 0 && profile.getInvestmentCount() >= max) {
             return false;
         }
 
@@ -95,4 +438,17 @@ public class InvestmentManager {
     public Iterable<InvestmentProfile> getLoadedProfiles() {
         return cache.values();
     }
+
+    /** Loaded profiles whose owner is online, as a point-in-time snapshot. */
+    public List<InvestmentProfile> getOnlineProfiles() {
+        return onlineProfiles.snapshot();
+    }
+
+    public int getOnlineProfileCount() {
+        return onlineProfiles.size();
+    }
+
+    public int getLoadedProfileCount() {
+        return cache.size();
+    }
 }
@@ -1,6 +1,9 @@
 package com.jamplifier.investments.investment;
 
 import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.ProfileSnapshot;
+import com.jamplifier.investments.storage.StoredProfile;
+import com.jamplifier.investments.util.MoneyUnits;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -8,11 +11,45 @@ import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * A player's investments. All access goes through this object's monitor, so
+ * the async interest workers and main-thread GUI/commands can share it.
+ *
+ * Totals are kept up to date by every method that changes an investment,
+ * so reading them doesn't walk the list. Investments must therefore only
+ * be changed through this class.
+ */
 public class InvestmentProfile {
 
+    /** Told about every change to a profile's totals; called under the profile's monitor. */
+    interface TotalsListener {
+        void totalsChanged(long investedDelta, long profitDelta);
+
+        void profitCollected(long micros);
+    }
+
     private final UUID owner;
     private final List<Investment> investments = new ArrayList<>();
     private boolean autoCollect;
+    // LAZY mode: true while the owner is online and investments earn interest
+    private boolean accruing;
+
+    // running totals, in micros, and their BigDecimal form (null until asked for)
+    private long totalInvestedMicros;
+    private long totalProfitMicros;
+    private BigDecimal totalInvested;
+    private BigDecimal totalProfit;
+    // bumped on every visible change, so readers can tell whether cached views are stale
+    private volatile long version;
+    // set once the profile is loaded, so the load itself is not reported as a change
+    private TotalsListener totalsListener;
+
+    // what storage currently holds, so a save only writes what changed
+    private final List<Long> removedIds = new ArrayList<>();
+    private boolean persistedAutoCollect;
+
+    // last lookup, for idle eviction from the cache
+    private volatile long lastAccessMillis = System.currentTimeMillis();
 
     public InvestmentProfile(UUID owner) {
         this.owner = owner;
@@ -22,60 +59,287 @@ public class InvestmentProfile {
         return owner;
     }
 
-    public List<Investment> getInvestments() {
-        return Collections.unmodifiableList(investments);
+    synchronized void setTotalsListener(TotalsListener totalsListener) {
+        this.totalsListener = totalsListener;
     }
 
-    public boolean isAutoCollect() {
+    void touch(long now) {
+        lastAccessMillis = now;
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    /** Changes whenever the totals, the investments or auto-collect change. Lock-free. */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Point-in-time copy of the investment list. */
+    public synchronized List<Investment> getInvestments() {
+        return Collections.unmodifiableList(new ArrayList<>(investments));
+    }
+
+    public synchronized int getInvestmentCount() {
+        return investments.size();
+    }
+
+    public synchronized boolean isAutoCollect() {
         return autoCollect;
     }
 
-    public void setAutoCollect(boolean autoCollect) {
-        this.autoCollect = autoCollect;
+    public synchronized void setAutoCollect(boolean autoCollect) {
+        if (this.autoCollect != autoCollect) {
+            this.autoCollect = autoCollect;
+            version++;
+        }
     }
 
-    public void addInvestment(BigDecimal amount) {
-        investments.add(new Investment(owner, amount, BigDecimal.ZERO));
+    public synchronized void addInvestment(BigDecimal amount) {
+        Investment inv = new Investment(owner, MoneyUnits.fromBigDecimal(amount), 0L);
+        if (accruing) {
+            inv.setAccrualAnchorMillis(System.currentTimeMillis());
+        }
+        investments.add(inv);
+        addToTotals(inv.getInvestedMicros(), 0L);
     }
 
-    public void deleteAllInvestments() {
+    public synchronized void deleteAllInvestments() {
+        for (Investment inv : investments) {
+            if (inv.isPersisted()) {
+                removedIds.add(inv.getId());
+            }
+        }
         investments.clear();
+        resetTotals();
     }
 
-    public BigDecimal getTotalInvested() {
-        BigDecimal total = BigDecimal.ZERO;
-        for (Investment inv : investments) {
-            total = total.add(inv.getInvested());
+    public synchronized BigDecimal getTotalInvested() {
+        if (totalInvested == null) {
+            totalInvested = MoneyUnits.toBigDecimal(totalInvestedMicros);
         }
-        return total;
+        return totalInvested;
+    }
+
+    public synchronized long getTotalInvestedMicros() {
+        return totalInvestedMicros;
+    }
+
+    public synchronized BigDecimal getTotalProfit() {
+        if (totalProfit == null) {
+            totalProfit = MoneyUnits.toBigDecimal(totalProfitMicros);
+        }
+        return totalProfit;
     }
 
-    public BigDecimal getTotalProfit() {
-        BigDecimal total = BigDecimal.ZERO;
+    public synchronized long getTotalProfitMicros() {
+        return totalProfitMicros;
+    }
+
+    // caller holds the monitor
+    private void addToTotals(long investedDelta, long profitDelta) {
+        if (investedDelta != 0L) {
+            totalInvestedMicros = MoneyUnits.add(totalInvestedMicros, investedDelta);
+            totalInvested = null;
+            version++;
+        }
+        if (profitDelta != 0L) {
+            totalProfitMicros = MoneyUnits.add(totalProfitMicros, profitDelta);
+            totalProfit = null;
+            version++;
+        }
+        if (totalsListener != null && (investedDelta != 0L || profitDelta != 0L)) {
+            totalsListener.totalsChanged(investedDelta, profitDelta);
+        }
+    }
+
+    // caller holds the monitor
+    private void resetTotals() {
+        long invested = 0L;
+        long profit = 0L;
         for (Investment inv : investments) {
-            total = total.add(inv.getProfit());
+            invested = MoneyUnits.add(invested, inv.getInvestedMicros());
+            profit = MoneyUnits.add(profit, inv.getProfitMicros());
         }
-        return total;
+        if (totalsListener != null) {
+            totalsListener.totalsChanged(invested - totalInvestedMicros, profit - totalProfitMicros);
+        }
+        totalInvestedMicros = invested;
+        totalProfitMicros = profit;
+        totalInvested = null;
+        totalProfit = null;
+        version++;
     }
 
     /** Take ALL profit from all investments and reset them. */
     public BigDecimal collectAllProfit() {
-        BigDecimal total = BigDecimal.ZERO;
+        return MoneyUnits.toBigDecimal(collectAllProfitMicros());
+    }
+
+    public synchronized long collectAllProfitMicros() {
+        long total = 0L;
         for (Investment inv : investments) {
-            total = total.add(inv.takeProfit());
+            total = MoneyUnits.add(total, inv.takeProfitMicros());
+        }
+        if (total != 0L) {
+            if (totalsListener != null) {
+                totalsListener.totalsChanged(0L, -totalProfitMicros);
+                totalsListener.profitCollected(total);
+            }
+            totalProfitMicros = 0L;
+            totalProfit = null;
+            version++;
         }
         return total;
     }
 
+    /**
+     * Apply one interval of interest to every investment.
+     *
+     * @return profit earned, in micros
+     */
+    public synchronized long accrue(AccrualRate rate) {
+        long earned = 0L;
+        for (Investment inv : investments) {
+            long interest = rate.interestMicros(inv.getInvestedMicros());
+            if (interest > 0) {
+                inv.addProfitMicros(interest);
+                earned = MoneyUnits.add(earned, interest);
+            }
+        }
+        addToTotals(0L, earned);
+        return earned;
+    }
+
+    // --- LAZY accrual ---
+
+    public synchronized boolean isAccruing() {
+        return accruing;
+    }
+
+    /** Start earning from {@code now} (owner came online). */
+    synchronized void resumeAccrual(long now) {
+        accruing = true;
+        for (Investment inv : investments) {
+            if (inv.getAccrualAnchorMillis() <= 0) {
+                inv.setAccrualAnchorMillis(now);
+            }
+        }
+    }
+
+    /** Stop earning. Callers settle first, the partial interval is dropped. */
+    synchronized void pauseAccrual() {
+        accruing = false;
+        for (Investment inv : investments) {
+            inv.setAccrualAnchorMillis(0L);
+        }
+    }
+
+    /**
+     * Credit every whole interval elapsed since each investment's anchor
+     * and move the anchors forward.
+     *
+     * @return profit earned, in micros
+     */
+    synchronized long settle(RateTimeline timeline, long intervalMillis, long now) {
+        if (!accruing) return 0L;
+
+        long earned = 0L;
+        for (Investment inv : investments) {
+            long anchor = inv.getAccrualAnchorMillis();
+            if (anchor <= 0 || now - anchor < intervalMillis) continue;
+
+            long periods = (now - anchor) / intervalMillis;
+            long interest = timeline.interestMicros(inv.getInvestedMicros(), anchor, periods, intervalMillis);
+            inv.setAccrualAnchorMillis(anchor + periods * intervalMillis);
+
+            if (interest > 0) {
+                inv.addProfitMicros(interest);
+                earned = MoneyUnits.add(earned, interest);
+            }
+        }
+        addToTotals(0L, earned);
+        return earned;
+    }
+
     // --- Storage hooks (simple for now; full SQL/Mongo later) ---
 
-    public void load(InvestmentStorage storage) {
+    public synchronized void load(InvestmentStorage storage) {
         investments.clear();
-        investments.addAll(storage.loadInvestments(owner));
-        this.autoCollect = storage.loadAutoCollect(owner);
+        StoredProfile stored = storage.loadProfile(owner);
+        investments.addAll(stored.getInvestments());
+        resetTotals();
+        this.autoCollect = stored.isAutoCollect();
+        this.persistedAutoCollect = autoCollect;
+        removedIds.clear();
     }
 
-    public void save(InvestmentStorage storage) {
-        storage.saveProfile(owner, investments, autoCollect);
+    /** True if storage does not hold the current state yet. */
+    public synchronized boolean hasUnsavedChanges() {
+        if (autoCollect != persistedAutoCollect || !removedIds.isEmpty()) {
+            return true;
+        }
+        for (Investment inv : investments) {
+            if (inv.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Copy for persistence; the write itself happens outside the lock. */
+    public synchronized ProfileSnapshot snapshot() {
+        List<ProfileSnapshot.Row> rows = new ArrayList<>(investments.size());
+        for (Investment inv : investments) {
+            ProfileSnapshot.Change change;
+            if (!inv.isPersisted()) {
+                change = ProfileSnapshot.Change.INSERT;
+            } else if (!inv.isDirty()) {
+                change = ProfileSnapshot.Change.NONE;
+            } else if (inv.isInvestedDirty()) {
+                change = ProfileSnapshot.Change.UPDATE;
+            } else {
+                change = ProfileSnapshot.Change.UPDATE_PROFIT;
+            }
+            rows.add(new ProfileSnapshot.Row(inv, inv.getId(), inv.getInvestedMicros(),
+                    inv.getProfitMicros(), inv.getVersion(), change));
+        }
+
+        long[] removed = new long[removedIds.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = removedIds.get(i);
+        }
+
+        return new ProfileSnapshot(owner, rows, removed, autoCollect,
+                autoCollect != persistedAutoCollect, this::markPersisted);
+    }
+
+    /** Storage committed {@code snapshot}; later changes stay dirty. */
+    private synchronized void markPersisted(ProfileSnapshot snapshot) {
+        for (ProfileSnapshot.Row row : snapshot.getRows()) {
+            if (row.getChange() == ProfileSnapshot.Change.NONE) continue;
+
+            Investment inv = row.getSource();
+            inv.markPersisted(row.getGeneratedId(), row.getVersion(), row.getInvestedMicros());
+
+            // deleted while its INSERT was in flight: the new row has to go as well
+            if (row.getChange() == ProfileSnapshot.Change.INSERT && !containsSame(inv)) {
+                removedIds.add(inv.getId());
+            }
+        }
+
+        for (long id : snapshot.getRemovedIds()) {
+            removedIds.remove(Long.valueOf(id));
+        }
+
+        persistedAutoCollect = snapshot.isAutoCollect();
+    }
+
+    private boolean containsSame(Investment target) {
+        for (Investment inv : investments) {
+            if (inv == target) return true;
+        }
+        return false;
     }
 }
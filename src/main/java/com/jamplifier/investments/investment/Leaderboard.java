@@ -0,0 +1,154 @@
+package com.jamplifier.investments.investment;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.PlayerTotals;
+import com.jamplifier.investments.util.FoliaSchedulerUtil;
+import com.jamplifier.investments.util.MoneyUnits;
+import org.bukkit.Bukkit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top investors by total invested, kept up to date in memory.
+ *
+ * Seeded once at startup with a single aggregate query, then updated
+ * whenever a profile is saved or loaded, so rankings never need to load
+ * profiles. Reads and updates are O(log n).
+ */
+public class Leaderboard {
+
+    public static final class Entry {
+        private final int rank;
+        private final UUID owner;
+        private final long investedMicros;
+
+        private Entry(int rank, UUID owner, long investedMicros) {
+            this.rank = rank;
+            this.owner = owner;
+            this.investedMicros = investedMicros;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public UUID getOwner() {
+            return owner;
+        }
+
+        public BigDecimal getInvested() {
+            return MoneyUnits.toBigDecimal(investedMicros);
+        }
+    }
+
+    private final InvestmentsPlugin plugin;
+    private final InvestmentStorage storage;
+
+    private final RankedIndex index = new RankedIndex();
+    // players updated while the seed query ran; their live totals win
+    private final Set<UUID> updatedBeforeSeed = new HashSet<>();
+    private boolean seeded;
+
+    private final Map<UUID, String> names = new ConcurrentHashMap<>();
+
+    public Leaderboard(InvestmentsPlugin plugin, InvestmentStorage storage) {
+        this.plugin = plugin;
+        this.storage = storage;
+    }
+
+    /** Load every player's total in the background. */
+    public void seedAsync() {
+        FoliaSchedulerUtil.runAsync(this::seed);
+    }
+
+    private void seed() {
+        Map<UUID, PlayerTotals> totals;
+        try {
+            totals = storage.loadPlayerTotals();
+        } catch (RuntimeException ex) {
+            plugin.getLogger().severe("[Investments] Error loading leaderboard totals: " + ex.getMessage());
+            return;
+        }
+
+        int investors;
+        synchronized (this) {
+            for (Map.Entry<UUID, PlayerTotals> e : totals.entrySet()) {
+                if (!updatedBeforeSeed.contains(e.getKey())) {
+                    index.put(e.getKey(), MoneyUnits.fromBigDecimal(e.getValue().getInvested()));
+                }
+            }
+            updatedBeforeSeed.clear();
+            seeded = true;
+            investors = index.size();
+        }
+        plugin.getLogger().info("[Investments] Leaderboard loaded with " + investors + " investor(s).");
+    }
+
+    /** A player's total invested changed (or was confirmed on load). */
+    public synchronized void update(UUID owner, long investedMicros) {
+        if (!seeded) {
+            updatedBeforeSeed.add(owner);
+        }
+        index.put(owner, investedMicros);
+    }
+
+    /** 1-based rank, or 0 if the player has nothing invested. */
+    public synchronized int getRank(UUID owner) {
+        return index.rankOf(owner);
+    }
+
+    /** Entry at a 1-based rank, or null. */
+    public synchronized Entry getEntry(int rank) {
+        RankedIndex.Node node = index.byRank(rank);
+        return node != null ? new Entry(rank, node.owner, node.investedMicros) : null;
+    }
+
+    /** Up to {@code count} entries starting at a 1-based rank. */
+    public synchronized List<Entry> getRange(int fromRank, int count) {
+        RankedIndex.Node node = index.byRank(fromRank);
+        if (node == null || count <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(count, index.size() - fromRank + 1));
+        int rank = fromRank;
+        while (node != null && entries.size() < count) {
+            entries.add(new Entry(rank++, node.owner, node.investedMicros));
+            node = node.following();
+        }
+        return entries;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /** Remember an online player's name, so rankings need not look it up. */
+    public void rememberName(UUID owner, String name) {
+        if (name != null) {
+            names.put(owner, name);
+        }
+    }
+
+    public String getName(UUID owner) {
+        String name = names.get(owner);
+        if (name == null) {
+            // Bukkit's user cache; no web lookup for a UUID
+            name = Bukkit.getOfflinePlayer(owner).getName();
+            if (name == null) {
+                return owner.toString().substring(0, 8);
+            }
+            names.put(owner, name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,27 @@
+package com.jamplifier.investments.investment;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Tells us when LuckPerms recalculates a player's permissions, so cached
+ * limits can be dropped right away instead of waiting for a TTL.
+ *
+ * Only loaded when LuckPerms is enabled; nothing else references its API.
+ */
+final class LuckPermsHook {
+
+    private LuckPermsHook() {
+    }
+
+    /** LuckPerms drops the subscription itself when we are disabled. */
+    static void register(InvestmentsPlugin plugin, Consumer<UUID> onRecalculate) {
+        LuckPermsProvider.get().getEventBus()
+                .subscribe(plugin, UserDataRecalculateEvent.class,
+                        event -> onRecalculate.accept(event.getUser().getUniqueId()));
+    }
+}
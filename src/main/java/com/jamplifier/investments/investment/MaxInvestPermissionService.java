@@ -1,46 +1,135 @@
 package com.jamplifier.investments.investment;
 
 import com.jamplifier.investments.InvestmentsPlugin;
-import org.bukkit.configuration.ConfigurationSection;
+import com.jamplifier.investments.util.InvestmentsSettings;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Investment limits granted by permissions.
+ *
+ * Resolving them means a hasPermission per configured node plus a scan of
+ * every effective permission, so the result is cached per player. An entry
+ * is dropped when the player joins or quits, on reload, and when LuckPerms
+ * recalculates the player's permissions. Without LuckPerms there is no
+ * such signal, so entries also expire after a short TTL.
+ */
 public class MaxInvestPermissionService {
 
     private static final String MAX_AMOUNT_PERMISSION_PREFIX = "invest.maxlimit.";
 
+    /** A player's resolved limits. */
+    public static final class Limits {
+        private final int maxInvestments;
+        private final BigDecimal maxTotalAmount;
+        private final long resolvedAt;
+
+        private Limits(int maxInvestments, BigDecimal maxTotalAmount, long resolvedAt) {
+            this.maxInvestments = maxInvestments;
+            this.maxTotalAmount = maxTotalAmount;
+            this.resolvedAt = resolvedAt;
+        }
+
+        /** 0 if no configured permission applies. */
+        public int getMaxInvestments() {
+            return maxInvestments;
+        }
+
+        /** Highest invest.maxlimit.<amount>, or ZERO if none. */
+        public BigDecimal getMaxTotalAmount() {
+            return maxTotalAmount;
+        }
+    }
+
     private final InvestmentsPlugin plugin;
-    private final Map<String, Integer> limits = new HashMap<>();
+    // immutable, replaced on reload
+    private volatile Map<String, Integer> limits = Collections.emptyMap();
+    private volatile long ttlMillis;
+
+    private final Map<UUID, Limits> cache = new ConcurrentHashMap<>();
+    // bumped on every invalidation, so a resolve that raced one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    // set once LuckPerms tells us about permission changes; no TTL needed then
+    private volatile boolean luckPermsHooked;
 
     public MaxInvestPermissionService(InvestmentsPlugin plugin) {
         this.plugin = plugin;
         reload();
+        hookLuckPerms();
     }
 
     public void reload() {
-        limits.clear();
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection("max-invest-permissions");
-        if (sec == null) {
+        InvestmentsSettings settings = plugin.getSettings();
+        limits = settings.getMaxInvestPermissions();
+        ttlMillis = settings.getPermissionCacheTtlMillis();
+        invalidateAll();
+    }
+
+    private void hookLuckPerms() {
+        if (!Bukkit.getPluginManager().isPluginEnabled("LuckPerms")) {
             return;
         }
+        try {
+            LuckPermsHook.register(plugin, this::invalidate);
+            luckPermsHooked = true;
+            plugin.getLogger().info("[Investments] Hooked into LuckPerms for permission limit updates.");
+        } catch (RuntimeException | LinkageError ex) {
+            plugin.getLogger().warning("[Investments] Could not hook into LuckPerms, permission limits use a "
+                    + ttlMillis / 1000L + "s cache instead: " + ex);
+        }
+    }
 
-        for (String perm : sec.getKeys(false)) {
-            int value = sec.getInt(perm, 0);
-            if (value > 0) {
-                limits.put(perm, value);
-            }
+    /** Resolved limits for an online player, from the cache when still valid. */
+    public Limits getLimits(Player player) {
+        UUID uuid = player.getUniqueId();
+        long now = System.currentTimeMillis();
+
+        Limits cached = cache.get(uuid);
+        if (cached != null && (luckPermsHooked || now - cached.resolvedAt < ttlMillis)) {
+            return cached;
         }
+
+        long seen = invalidations.get();
+        Limits resolved = new Limits(resolveMaxInvestments(player), resolveMaxTotalAmount(player), now);
+        cache.put(uuid, resolved);
+        if (invalidations.get() != seen) {
+            // permissions changed while we were reading them
+            cache.remove(uuid, resolved);
+        }
+        return resolved;
+    }
+
+    public void invalidate(UUID uuid) {
+        invalidations.incrementAndGet();
+        cache.remove(uuid);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    public int getMaxInvestments(Player player) {
+        return getLimits(player).getMaxInvestments();
+    }
+
+    public BigDecimal getMaxTotalAmount(Player player) {
+        return getLimits(player).getMaxTotalAmount();
     }
 
     /**
      * Max number of simultaneous investments based on config section
      * max-invest-permissions.
      */
-    public int getMaxInvestments(Player player) {
+    private int resolveMaxInvestments(Player player) {
         int max = 0;
         for (Map.Entry<String, Integer> e : limits.entrySet()) {
             if (player.hasPermission(e.getKey()) && e.getValue() > max) {
@@ -59,7 +148,7 @@ public class MaxInvestPermissionService {
      *
      * If the player has no such permission, returns BigDecimal.ZERO.
      */
-    public BigDecimal getMaxTotalAmount(Player player) {
+    private BigDecimal resolveMaxTotalAmount(Player player) {
         BigDecimal max = BigDecimal.ZERO;
 
         for (PermissionAttachmentInfo info : player.getEffectivePermissions()) {
@@ -0,0 +1,66 @@
+package com.jamplifier.investments.investment;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Loaded profiles whose owner is online, kept in a dense array so the
+ * interest round only visits players that can earn.
+ *
+ * Removal swaps the last element into the freed slot, so add/remove are
+ * O(1) and a snapshot is a single array copy.
+ */
+final class OnlineProfileIndex {
+
+    private static final InvestmentProfile[] EMPTY = new InvestmentProfile[0];
+
+    private InvestmentProfile[] profiles = new InvestmentProfile[16];
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private int size;
+
+    synchronized void add(InvestmentProfile profile) {
+        UUID owner = profile.getOwner();
+        Integer slot = slots.get(owner);
+        if (slot != null) {
+            // reloaded profile for the same owner: replace in place
+            profiles[slot] = profile;
+            return;
+        }
+
+        if (size == profiles.length) {
+            profiles = Arrays.copyOf(profiles, size * 2);
+        }
+        profiles[size] = profile;
+        slots.put(owner, size);
+        size++;
+    }
+
+    synchronized void remove(UUID owner) {
+        Integer slot = slots.remove(owner);
+        if (slot == null) return;
+
+        int last = --size;
+        if (slot != last) {
+            InvestmentProfile moved = profiles[last];
+            profiles[slot] = moved;
+            slots.put(moved.getOwner(), slot);
+        }
+        profiles[last] = null;
+    }
+
+    synchronized boolean contains(UUID owner) {
+        return slots.containsKey(owner);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /** Point-in-time copy; safe to iterate while players join or quit. */
+    synchronized List<InvestmentProfile> snapshot() {
+        return size == 0 ? Arrays.asList(EMPTY) : Arrays.asList(Arrays.copyOf(profiles, size));
+    }
+}
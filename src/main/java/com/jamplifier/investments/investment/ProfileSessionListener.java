@@ -0,0 +1,60 @@
+package com.jamplifier.investments.investment;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+/**
+ * Tracks when cached profiles' owners come and go, so the interest round
+ * only visits online players and LAZY accrual only counts time spent online.
+ */
+public class ProfileSessionListener implements Listener {
+
+    private final InvestmentManager investmentManager;
+    private final InterestService interestService;
+
+    public ProfileSessionListener(InvestmentManager investmentManager, InterestService interestService) {
+        this.investmentManager = investmentManager;
+        this.interestService = interestService;
+    }
+
+    /** Load during login, off the main thread, so the first /invest or placeholder never waits on storage. */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        investmentManager.preload(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        investmentManager.getLeaderboard().rememberName(player.getUniqueId(), player.getName());
+        // permissions may have changed while they were away
+        investmentManager.invalidatePermissionLimits(player.getUniqueId());
+
+        InvestmentProfile profile = investmentManager.markOnline(player.getUniqueId());
+        if (profile != null) {
+            interestService.resume(profile);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        investmentManager.markOffline(uuid);
+        investmentManager.invalidatePermissionLimits(uuid);
+
+        InvestmentProfile profile = investmentManager.getCachedProfile(uuid);
+        if (profile != null) {
+            interestService.pause(profile);
+        }
+    }
+}
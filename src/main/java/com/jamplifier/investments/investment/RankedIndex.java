@@ -0,0 +1,179 @@
+package com.jamplifier.investments.investment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Players ordered by total invested (highest first, ties by UUID), as an
+ * indexable skip list: every forward link also stores how many positions it
+ * skips, so insert, remove, rank-of and n-th lookups are all O(log n).
+ *
+ * Not thread-safe; {@link Leaderboard} guards it.
+ */
+final class RankedIndex {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_UP = 0.25D;
+
+    static final class Node {
+        final UUID owner;
+        final long investedMicros;
+        final Node[] next;
+        // positions skipped by next[i]
+        final int[] span;
+
+        private Node(UUID owner, long investedMicros, int level) {
+            this.owner = owner;
+            this.investedMicros = investedMicros;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        Node following() {
+            return next[0];
+        }
+    }
+
+    private final Node head = new Node(null, Long.MAX_VALUE, MAX_LEVEL);
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private int level = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** Set a player's total; 0 or less takes them off the board. */
+    void put(UUID owner, long investedMicros) {
+        Node existing = nodes.get(owner);
+        if (existing != null) {
+            if (existing.investedMicros == investedMicros) return;
+            unlink(existing);
+        }
+        if (investedMicros > 0) {
+            insert(owner, investedMicros);
+        }
+    }
+
+    /** 1-based rank, or 0 if the player is not ranked. */
+    int rankOf(UUID owner) {
+        Node target = nodes.get(owner);
+        if (target == null) return 0;
+
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == target || precedes(x.next[i], target.investedMicros, target.owner))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == target) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /** Node at a 1-based rank, or null if out of range. */
+    Node byRank(int rank) {
+        if (rank < 1 || rank > size) return null;
+
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private void insert(UUID owner, long investedMicros) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && precedes(x.next[i], investedMicros, owner)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node node = new Node(owner, investedMicros, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        // levels above the new node now skip one more position
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        nodes.put(owner, node);
+        size++;
+    }
+
+    private void unlink(Node target) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && precedes(x.next[i], target.investedMicros, target.owner)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        nodes.remove(target.owner);
+        size--;
+    }
+
+    // true if node sorts before (investedMicros, owner)
+    private static boolean precedes(Node node, long investedMicros, UUID owner) {
+        if (node.investedMicros != investedMicros) {
+            return node.investedMicros > investedMicros;
+        }
+        return node.owner.compareTo(owner) < 0;
+    }
+
+    private static int randomLevel() {
+        int lvl = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (lvl < MAX_LEVEL && random.nextDouble() < LEVEL_UP) {
+            lvl++;
+        }
+        return lvl;
+    }
+}
@@ -0,0 +1,64 @@
+package com.jamplifier.investments.investment;
+
+import com.jamplifier.investments.util.MoneyUnits;
+
+/**
+ * Piecewise-constant interest rate over time, used by LAZY accrual.
+ *
+ * rates[i] applies to interval boundaries falling in [starts[i], starts[i + 1]).
+ * A new segment starts whenever a multiplier begins or expires.
+ */
+final class RateTimeline {
+
+    private final long[] starts;
+    private final AccrualRate[] rates;
+
+    RateTimeline(long[] starts, AccrualRate[] rates) {
+        this.starts = starts;
+        this.rates = rates;
+    }
+
+    static RateTimeline constant(AccrualRate rate) {
+        return new RateTimeline(new long[]{Long.MIN_VALUE}, new AccrualRate[]{rate});
+    }
+
+    AccrualRate rateAt(long time) {
+        int i = starts.length - 1;
+        while (i > 0 && starts[i] > time) {
+            i--;
+        }
+        return rates[i];
+    }
+
+    /**
+     * Closed-form interest for an investment anchored at {@code anchor} over
+     * {@code periods} whole intervals: each segment contributes
+     * (boundaries in segment) x (one interval of interest at that segment's rate).
+     */
+    long interestMicros(long investedMicros, long anchor, long periods, long intervalMillis) {
+        long total = 0L;
+
+        for (int i = 0; i < starts.length; i++) {
+            long first = i == 0 ? 1L : Math.max(1L, ceilDiv(starts[i] - anchor, intervalMillis));
+            long last = i + 1 < starts.length
+                    ? Math.min(periods, ceilDiv(starts[i + 1] - anchor, intervalMillis) - 1L)
+                    : periods;
+            if (last < first) continue;
+
+            long perPeriod = rates[i].interestMicros(investedMicros);
+            if (perPeriod <= 0) continue;
+
+            long count = last - first + 1L;
+            long segment = Math.multiplyHigh(perPeriod, count) == 0L && perPeriod * count >= 0L
+                    ? perPeriod * count
+                    : Long.MAX_VALUE;
+            total = MoneyUnits.add(total, segment);
+        }
+
+        return total;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
@@ -0,0 +1,189 @@
+package com.jamplifier.investments.investment;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.PlayerTotals;
+import com.jamplifier.investments.util.ConfigKeys;
+import com.jamplifier.investments.util.FoliaSchedulerUtil;
+import com.jamplifier.investments.util.MoneyUnits;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-wide totals: invested, unclaimed profit, investors and profit paid
+ * out over the last hour.
+ *
+ * Loaded profiles report every change to their totals, so the counters move
+ * with each invest, accrual and collect without scanning anything. A
+ * periodic background query re-bases them on storage (plus the live totals
+ * of loaded profiles) to correct any drift.
+ */
+public class StatsService implements InvestmentProfile.TotalsListener {
+
+    private static final int WINDOW_MINUTES = 60;
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final InvestmentsPlugin plugin;
+    private final InvestmentStorage storage;
+    private final InvestmentManager investmentManager;
+
+    private final LongAdder investedMicros = new LongAdder();
+    private final LongAdder profitMicros = new LongAdder();
+
+    // profit paid out per minute over the last hour; slot = minute % WINDOW_MINUTES
+    private final long[] paidMinutes = new long[WINDOW_MINUTES];
+    private final long[] paidMicros = new long[WINDOW_MINUTES];
+
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile long lastReconcileMillis;
+
+    private ScheduledTask foliaTask;
+    private BukkitTask bukkitTask;
+
+    StatsService(InvestmentsPlugin plugin, InvestmentStorage storage, InvestmentManager investmentManager) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.investmentManager = investmentManager;
+    }
+
+    @Override
+    public void totalsChanged(long investedDelta, long profitDelta) {
+        if (investedDelta != 0L) {
+            investedMicros.add(investedDelta);
+        }
+        if (profitDelta != 0L) {
+            profitMicros.add(profitDelta);
+        }
+    }
+
+    @Override
+    public void profitCollected(long micros) {
+        long minute = System.currentTimeMillis() / MINUTE_MILLIS;
+        int slot = (int) (minute % WINDOW_MINUTES);
+        synchronized (paidMicros) {
+            if (paidMinutes[slot] != minute) {
+                paidMinutes[slot] = minute;
+                paidMicros[slot] = 0L;
+            }
+            paidMicros[slot] = MoneyUnits.add(paidMicros[slot], micros);
+        }
+    }
+
+    public BigDecimal getTotalInvested() {
+        return MoneyUnits.toBigDecimal(investedMicros.sum());
+    }
+
+    public BigDecimal getTotalProfit() {
+        return MoneyUnits.toBigDecimal(profitMicros.sum());
+    }
+
+    /** Players with anything invested. */
+    public int getInvestorCount() {
+        return investmentManager.getLeaderboard().size();
+    }
+
+    /** Profit collected (manually or by auto-collect) during the last 60 minutes. */
+    public BigDecimal getProfitPaidLastHour() {
+        long oldest = System.currentTimeMillis() / MINUTE_MILLIS - WINDOW_MINUTES;
+        long total = 0L;
+        synchronized (paidMicros) {
+            for (int i = 0; i < WINDOW_MINUTES; i++) {
+                if (paidMinutes[i] > oldest) {
+                    total = MoneyUnits.add(total, paidMicros[i]);
+                }
+            }
+        }
+        return MoneyUnits.toBigDecimal(total);
+    }
+
+    /** Wall-clock time of the last completed reconcile, or 0 if none yet. */
+    public long getLastReconcileMillis() {
+        return lastReconcileMillis;
+    }
+
+    /** (Re)start the periodic reconcile; the first one runs right away. */
+    public synchronized void start() {
+        stop();
+
+        long minutes = Math.max(1L, plugin.getConfig().getLong(ConfigKeys.STATS_RECONCILE_MINUTES, 10L));
+        if (FoliaSchedulerUtil.isFolia()) {
+            foliaTask = Bukkit.getAsyncScheduler().runAtFixedRate(
+                    plugin,
+                    scheduledTask -> reconcile(),
+                    0L,
+                    minutes,
+                    TimeUnit.MINUTES
+            );
+        } else {
+            bukkitTask = Bukkit.getScheduler().runTaskTimerAsynchronously(
+                    plugin,
+                    this::reconcile,
+                    1L,
+                    minutes * 60L * 20L
+            );
+        }
+    }
+
+    public synchronized void stop() {
+        if (foliaTask != null) {
+            foliaTask.cancel();
+            foliaTask = null;
+        }
+        if (bukkitTask != null) {
+            bukkitTask.cancel();
+            bukkitTask = null;
+        }
+    }
+
+    /**
+     * Runs off the main thread. Players not loaded count as storage has
+     * them; loaded profiles count with their live totals, since storage may
+     * not have their latest writes yet. A change landing between reading a
+     * profile and the re-base is missed until the next reconcile.
+     */
+    private void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Map<UUID, PlayerTotals> stored = storage.loadPlayerTotals();
+
+            long invested = 0L;
+            long profit = 0L;
+            Set<UUID> loaded = new HashSet<>();
+            for (InvestmentProfile profile : investmentManager.getLoadedProfiles()) {
+                loaded.add(profile.getOwner());
+                invested = MoneyUnits.add(invested, profile.getTotalInvestedMicros());
+                profit = MoneyUnits.add(profit, profile.getTotalProfitMicros());
+            }
+            for (Map.Entry<UUID, PlayerTotals> e : stored.entrySet()) {
+                if (loaded.contains(e.getKey())) continue;
+                invested = MoneyUnits.add(invested, MoneyUnits.fromBigDecimal(e.getValue().getInvested()));
+                profit = MoneyUnits.add(profit, MoneyUnits.fromBigDecimal(e.getValue().getProfit()));
+            }
+
+            rebase(investedMicros, invested);
+            rebase(profitMicros, profit);
+            lastReconcileMillis = System.currentTimeMillis();
+        } catch (RuntimeException ex) {
+            plugin.getLogger().severe("[Investments] Error reconciling investment stats: " + ex.getMessage());
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    // deltas added concurrently are kept: only the difference is applied
+    private static void rebase(LongAdder adder, long value) {
+        adder.add(value - adder.sum());
+    }
+}
@@ -4,27 +4,50 @@ import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.investment.InvestmentManager;
 import com.jamplifier.investments.investment.InvestmentProfile;
 import com.jamplifier.investments.investment.InterestService;
+import com.jamplifier.investments.investment.Leaderboard;
 import com.jamplifier.investments.util.AmountUtil;
+import com.jamplifier.investments.util.ConfigKeys;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class InvestmentsPlaceholderExpansion extends PlaceholderExpansion {
 
+    private static final int PRUNE_SLACK = 64;
+
     private final InvestmentsPlugin plugin;
     private final InvestmentManager investmentManager;
     private final InterestService interestService;
 
+    // rebuilt only when the profile's version moves; see PlaceholderSnapshot
+    private final Map<UUID, PlaceholderSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final OfflineSnapshotCache offlineSnapshots;
+
     public InvestmentsPlaceholderExpansion(InvestmentsPlugin plugin,
                                            InvestmentManager investmentManager,
                                            InterestService interestService) {
         this.plugin = plugin;
         this.investmentManager = investmentManager;
         this.interestService = interestService;
+        this.offlineSnapshots = new OfflineSnapshotCache(
+                investmentManager, interestService::getBaseRatePercentPerSecond, 256, 60_000L);
+        reloadFromConfig();
+    }
+
+    public void reloadFromConfig() {
+        FileConfiguration cfg = plugin.getConfig();
+        offlineSnapshots.configure(
+                cfg.getInt(ConfigKeys.PLACEHOLDER_OFFLINE_CACHE_SIZE, 256),
+                cfg.getLong(ConfigKeys.PLACEHOLDER_OFFLINE_REFRESH_SECONDS, 60L) * 1000L);
+        offlineSnapshots.clear();
     }
 
     @Override
@@ -49,70 +72,168 @@ public class InvestmentsPlaceholderExpansion extends PlaceholderExpansion {
     }
 
     @Override
-    public String onPlaceholderRequest(Player player, @NotNull String params) {
-        if (player == null) {
-            return "";
+    public String onRequest(OfflinePlayer player, @NotNull String params) {
+        Player online = player != null ? player.getPlayer() : null;
+        if (player == null || online != null) {
+            return onPlaceholderRequest(online, params);
         }
 
-        InvestmentProfile profile = investmentManager.getProfile(player.getUniqueId());
-        String key = params.toLowerCase(Locale.ROOT);
+        String ranked = leaderboardValue(player, params);
+        if (ranked != null) {
+            return ranked;
+        }
 
-        switch (key) {
-        case "amount_invested": {
-            BigDecimal total = profile.getTotalInvested();
-            return AmountUtil.formatShort(total);
+        PlaceholderSnapshot.Key key = PlaceholderSnapshot.Key.of(params);
+        if (key == null) {
+            return serverValue(params.toLowerCase(Locale.ROOT));
         }
 
-        case "profit": {
-            BigDecimal profit = profile.getTotalProfit();
-            return AmountUtil.formatShort(profit);
+        // still cached from a recent session: that copy is the freshest
+        UUID uuid = player.getUniqueId();
+        InvestmentProfile cached = investmentManager.getCachedProfile(uuid);
+        PlaceholderSnapshot snapshot = cached != null
+                ? currentSnapshot(uuid, cached)
+                : offlineSnapshots.get(uuid);
+        if (snapshot == null) {
+            return plugin.getSettings().getPlaceholderLoadingText();
         }
+        return snapshot.get(key);
+    }
 
+    @Override
+    public String onPlaceholderRequest(Player player, @NotNull String params) {
+        String ranked = leaderboardValue(player, params);
+        if (ranked != null) {
+            return ranked;
+        }
 
-            case "interest_rate": {
-                // base per-second % from config
-                BigDecimal ratePerSecond = interestService.getBaseRatePercentPerSecond();
-                return ratePerSecond.toPlainString();
-            }
+        PlaceholderSnapshot.Key key = PlaceholderSnapshot.Key.of(params);
+        if (key == null) {
+            String value = serverValue(params.toLowerCase(Locale.ROOT));
+            return value != null || player != null ? value : "";
+        }
 
-            case "autocollect_status": {
-                return profile.isAutoCollect() ? "Enabled" : "Disabled";
-            }
+        if (player == null) {
+            return "";
+        }
 
-            case "earn_per_second": {
-                BigDecimal total = profile.getTotalInvested();
-                if (total.compareTo(BigDecimal.ZERO) <= 0) {
-                    return "0";
-                }
+        String limit = limitValue(player, params);
+        if (limit != null) {
+            return limit;
+        }
 
-                BigDecimal ratePerSecond = interestService.getBaseRatePercentPerSecond();
-                // earnings per second = invested * (rate% / 100)
-                BigDecimal perSecond = total
-                        .multiply(ratePerSecond)
-                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.DOWN);
+        // placeholders resolve on tick threads: never wait for storage here
+        UUID uuid = player.getUniqueId();
+        InvestmentProfile profile = investmentManager.getProfileIfLoaded(uuid);
+        if (profile == null) {
+            return plugin.getSettings().getPlaceholderLoadingText();
+        }
 
-                return perSecond.toPlainString();
-            }
+        return currentSnapshot(uuid, profile).get(key);
+    }
 
-            case "earn_per_second_formatted": {
-                BigDecimal total = profile.getTotalInvested();
-                if (total.compareTo(BigDecimal.ZERO) <= 0) {
-                    return "0/s";
-                }
+    private PlaceholderSnapshot currentSnapshot(UUID uuid, InvestmentProfile profile) {
+        BigDecimal rate = interestService.getBaseRatePercentPerSecond();
+        PlaceholderSnapshot snapshot = snapshots.get(uuid);
+        if (snapshot == null || !snapshot.isCurrent(profile, rate)) {
+            snapshot = new PlaceholderSnapshot(profile, rate);
+            snapshots.put(uuid, snapshot);
+            pruneSnapshots();
+        }
+        return snapshot;
+    }
 
-                BigDecimal ratePerSecond = interestService.getBaseRatePercentPerSecond();
-                BigDecimal perSecond = total
-                        .multiply(ratePerSecond)
-                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.DOWN);
+    /**
+     * %investments_rank%, %investments_top_<n>_name% and %investments_top_<n>_invested%,
+     * straight from the leaderboard index. Null if params is not one of these.
+     */
+    private String leaderboardValue(OfflinePlayer player, String params) {
+        Leaderboard leaderboard = investmentManager.getLeaderboard();
 
-                // formatted + "/s"
-                return AmountUtil.formatShort(perSecond) + "/s";
+        if (params.equalsIgnoreCase("rank")) {
+            if (player == null) {
+                return "";
             }
+            int rank = leaderboard.getRank(player.getUniqueId());
+            return rank > 0 ? String.valueOf(rank) : emptyRankText();
+        }
+
+        if (!params.regionMatches(true, 0, "top_", 0, 4)) {
+            return null;
+        }
+        int split = params.indexOf('_', 4);
+        if (split < 0) {
+            return null;
+        }
+
+        int rank;
+        try {
+            rank = Integer.parseInt(params.substring(4, split));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+
+        String field = params.substring(split + 1);
+        boolean name = field.equalsIgnoreCase("name");
+        if (!name && !field.equalsIgnoreCase("invested")) {
+            return null;
+        }
 
+        Leaderboard.Entry entry = leaderboard.getEntry(rank);
+        if (entry == null) {
+            return emptyRankText();
+        }
+        return name ? leaderboard.getName(entry.getOwner()) : AmountUtil.formatShort(entry.getInvested());
+    }
 
+    /** %investments_limit_investments% and %investments_limit_amount%, from the cached permission limits. */
+    private String limitValue(Player player, String params) {
+        if (params.equalsIgnoreCase("limit_investments")) {
+            return String.valueOf(investmentManager.getMaxInvestments(player));
+        }
+        if (params.equalsIgnoreCase("limit_amount")) {
+            BigDecimal max = investmentManager.getMaxTotalAmount(player);
+            return max.signum() > 0 ? AmountUtil.formatShort(max) : emptyRankText();
+        }
+        return null;
+    }
 
+    private String emptyRankText() {
+        return plugin.getSettings().getPlaceholderRankEmptyText();
+    }
+
+    // server-wide counters, no player needed
+    private String serverValue(String key) {
+        switch (key) {
+            case "profiles_active":
+                return String.valueOf(investmentManager.getOnlineProfileCount());
+            case "profiles_loaded":
+                return String.valueOf(investmentManager.getLoadedProfileCount());
+            case "cache_hits":
+                return String.valueOf(investmentManager.getCacheHits());
+            case "cache_misses":
+                return String.valueOf(investmentManager.getCacheMisses());
+            case "cache_evictions":
+                return String.valueOf(investmentManager.getCacheEvictions());
+            case "stats_total_invested":
+                return AmountUtil.formatShort(investmentManager.getStats().getTotalInvested());
+            case "stats_total_profit":
+                return AmountUtil.formatShort(investmentManager.getStats().getTotalProfit());
+            case "stats_investors":
+                return String.valueOf(investmentManager.getStats().getInvestorCount());
+            case "stats_profit_per_hour":
+                return AmountUtil.formatShort(investmentManager.getStats().getProfitPaidLastHour());
             default:
                 return null;
         }
     }
+
+    /** Drop snapshots of profiles that were evicted or reloaded. */
+    private void pruneSnapshots() {
+        if (snapshots.size() <= investmentManager.getLoadedProfileCount() + PRUNE_SLACK) {
+            return;
+        }
+        snapshots.entrySet().removeIf(entry ->
+                investmentManager.getCachedProfile(entry.getKey()) != entry.getValue().getProfile());
+    }
 }
@@ -0,0 +1,107 @@
+package com.jamplifier.investments.placeholder;
+
+import com.jamplifier.investments.investment.InvestmentManager;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Placeholder snapshots of offline players, for holograms and leaderboards.
+ *
+ * Kept apart from the profile cache: entries are read-only copies loaded in
+ * the background, never saved and never seen by the interest round. The
+ * least recently used entry is dropped once the cache is full, and an entry
+ * is reloaded in the background once it is older than the refresh interval
+ * (the old values are served meanwhile).
+ */
+final class OfflineSnapshotCache {
+
+    private static final class Entry {
+        private PlaceholderSnapshot snapshot;
+        // last load attempt; failed loads wait for the refresh interval too
+        private long loadedAt = Long.MIN_VALUE;
+        private boolean loading;
+    }
+
+    private final InvestmentManager investmentManager;
+    private final Supplier<BigDecimal> rate;
+    private final Map<UUID, Entry> entries;
+
+    private volatile int maxSize;
+    private volatile long refreshMillis;
+
+    OfflineSnapshotCache(InvestmentManager investmentManager, Supplier<BigDecimal> rate, int maxSize, long refreshMillis) {
+        this.investmentManager = investmentManager;
+        this.rate = rate;
+        this.entries = new LinkedHashMap<UUID, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > OfflineSnapshotCache.this.maxSize;
+            }
+        };
+        configure(maxSize, refreshMillis);
+    }
+
+    void configure(int maxSize, long refreshMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.refreshMillis = Math.max(1000L, refreshMillis);
+    }
+
+    /**
+     * Latest snapshot for this player, or null until the first load lands.
+     * Never blocks: missing or stale entries are (re)loaded in the background.
+     */
+    PlaceholderSnapshot get(UUID uuid) {
+        BigDecimal currentRate = rate.get();
+        Entry entry;
+        PlaceholderSnapshot snapshot;
+        boolean load = false;
+
+        synchronized (entries) {
+            entry = entries.get(uuid);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(uuid, entry);
+            }
+
+            long now = System.currentTimeMillis();
+            if (!entry.loading && (entry.loadedAt == Long.MIN_VALUE || now - entry.loadedAt >= refreshMillis)) {
+                entry.loading = true;
+                load = true;
+            }
+
+            snapshot = entry.snapshot;
+            if (snapshot != null && !snapshot.isCurrent(snapshot.getProfile(), currentRate)) {
+                // rate reloaded: same stored values, new rendering
+                snapshot = new PlaceholderSnapshot(snapshot.getProfile(), currentRate);
+                entry.snapshot = snapshot;
+            }
+        }
+
+        if (load) {
+            startLoad(uuid, entry);
+        }
+        return snapshot;
+    }
+
+    private void startLoad(UUID uuid, Entry entry) {
+        investmentManager.loadDetached(uuid).whenComplete((profile, ex) -> {
+            synchronized (entries) {
+                entry.loading = false;
+                entry.loadedAt = System.currentTimeMillis();
+                if (profile != null) {
+                    entry.snapshot = new PlaceholderSnapshot(profile, rate.get());
+                }
+            }
+        });
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.jamplifier.investments.placeholder;
+
+import com.jamplifier.investments.investment.InvestmentProfile;
+import com.jamplifier.investments.util.AmountUtil;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A player's placeholder values at one profile version. Each string is
+ * rendered the first time its key is asked for and reused until the
+ * profile (or the configured rate) changes.
+ */
+final class PlaceholderSnapshot {
+
+    enum Key {
+        AMOUNT_INVESTED,
+        PROFIT,
+        INTEREST_RATE,
+        AUTOCOLLECT_STATUS,
+        EARN_PER_SECOND,
+        EARN_PER_SECOND_FORMATTED;
+
+        private static final Map<String, Key> BY_ID = new HashMap<>();
+
+        static {
+            for (Key key : values()) {
+                BY_ID.put(key.name().toLowerCase(Locale.ROOT), key);
+            }
+        }
+
+        /** Player placeholder for these params, or null. Lowercase params skip the case fold. */
+        static Key of(String params) {
+            Key key = BY_ID.get(params);
+            return key != null ? key : BY_ID.get(params.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private final InvestmentProfile profile;
+    private final long version;
+    private final BigDecimal ratePerSecond;
+    private final BigDecimal totalInvested;
+    private final BigDecimal totalProfit;
+    private final boolean autoCollect;
+
+    // filled lazily; a race only renders the same string twice
+    private final String[] rendered = new String[Key.values().length];
+
+    PlaceholderSnapshot(InvestmentProfile profile, BigDecimal ratePerSecond) {
+        this.profile = profile;
+        // version first: a change after this point makes the snapshot stale, never wrong
+        this.version = profile.getVersion();
+        this.ratePerSecond = ratePerSecond;
+        this.totalInvested = profile.getTotalInvested();
+        this.totalProfit = profile.getTotalProfit();
+        this.autoCollect = profile.isAutoCollect();
+    }
+
+    boolean isCurrent(InvestmentProfile profile, BigDecimal ratePerSecond) {
+        return this.profile == profile
+                && this.version == profile.getVersion()
+                && this.ratePerSecond == ratePerSecond;
+    }
+
+    InvestmentProfile getProfile() {
+        return profile;
+    }
+
+    String get(Key key) {
+        String value = rendered[key.ordinal()];
+        if (value == null) {
+            value = render(key);
+            rendered[key.ordinal()] = value;
+        }
+        return value;
+    }
+
+    private String render(Key key) {
+        switch (key) {
+            case AMOUNT_INVESTED:
+                return AmountUtil.formatShort(totalInvested);
+            case PROFIT:
+                return AmountUtil.formatShort(totalProfit);
+            case INTEREST_RATE:
+                // base per-second % from config
+                return ratePerSecond.toPlainString();
+            case AUTOCOLLECT_STATUS:
+                return autoCollect ? "Enabled" : "Disabled";
+            case EARN_PER_SECOND:
+                return totalInvested.signum() <= 0 ? "0" : earnPerSecond().toPlainString();
+            case EARN_PER_SECOND_FORMATTED:
+                return totalInvested.signum() <= 0 ? "0/s" : AmountUtil.formatShort(earnPerSecond()) + "/s";
+            default:
+                return null;
+        }
+    }
+
+    // earnings per second = invested * (rate% / 100)
+    private BigDecimal earnPerSecond() {
+        return totalInvested
+                .multiply(ratePerSecond)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.DOWN);
+    }
+}
@@ -1,8 +1,7 @@
 package com.jamplifier.investments.storage;
 
-import com.jamplifier.investments.investment.Investment;
-
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 public interface InvestmentStorage {
@@ -10,17 +9,32 @@ public interface InvestmentStorage {
     /** Setup connections / tables / collections. */
     void init();
 
-    /** Load all investments for a player. */
-    List<Investment> loadInvestments(UUID playerId);
+    /** Load a player's investments and profile flags together, in one query. */
+    StoredProfile loadProfile(UUID playerId);
+
+    /**
+     * Write a player's changes in one transaction. Row-based backends only
+     * touch the rows the snapshot marks as changed and report ids of new
+     * rows through {@link ProfileSnapshot.Row#setGeneratedId(long)}.
+     *
+     * @return true if the changes were committed
+     */
+    boolean saveProfile(ProfileSnapshot snapshot);
 
-    /** Load whether this player has auto-collect enabled. */
-    boolean loadAutoCollect(UUID playerId);
+    /**
+     * Write many players' changes at once: one transaction with batched
+     * statements for SQL, one bulk write for Mongo.
+     *
+     * @return true if every snapshot was committed
+     */
+    boolean saveProfiles(Collection<ProfileSnapshot> snapshots);
 
     /**
-     * Save the entire profile for a player.
-     * Implementations should replace all existing data for that player.
+     * Invested and unclaimed profit summed per player, in one aggregate
+     * query (leaderboard seed, stats reconcile). Players without
+     * investments are left out.
      */
-    void saveProfile(UUID playerId, List<Investment> investments, boolean autoCollect);
+    Map<UUID, PlayerTotals> loadPlayerTotals();
 
     /** Delete all investments for a player (and optionally profile info). */
     void deleteInvestments(UUID playerId);
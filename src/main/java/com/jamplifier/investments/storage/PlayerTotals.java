@@ -0,0 +1,27 @@
+package com.jamplifier.investments.storage;
+
+import java.math.BigDecimal;
+
+/** One player's summed investments as storage holds them. */
+public final class PlayerTotals {
+
+    private final BigDecimal invested;
+    private final BigDecimal profit;
+
+    public PlayerTotals(BigDecimal invested, BigDecimal profit) {
+        this.invested = invested;
+        this.profit = profit;
+    }
+
+    public BigDecimal getInvested() {
+        return invested;
+    }
+
+    public BigDecimal getProfit() {
+        return profit;
+    }
+
+    public static PlayerTotals sum(PlayerTotals a, PlayerTotals b) {
+        return new PlayerTotals(a.invested.add(b.invested), a.profit.add(b.profit));
+    }
+}
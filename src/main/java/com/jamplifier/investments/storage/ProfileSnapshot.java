@@ -0,0 +1,150 @@
+package com.jamplifier.investments.storage;
+
+import com.jamplifier.investments.investment.Investment;
+import com.jamplifier.investments.util.MoneyUnits;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Immutable copy of a profile taken for persistence, so the write can run
+ * off-thread while the live profile keeps changing.
+ *
+ * Besides the values, each row records what changed since it was last
+ * written, so row-based backends can touch only those rows. Document
+ * backends can ignore that and write {@link #getRows()} as a whole.
+ */
+public final class ProfileSnapshot {
+
+    public enum Change {
+        /** Unchanged since the last write. */
+        NONE,
+        /** Not in storage yet. */
+        INSERT,
+        /** Only the profit moved (the common case: interest and collects). */
+        UPDATE_PROFIT,
+        /** Invested amount changed as well. */
+        UPDATE
+    }
+
+    public static final class Row {
+        private final Investment source;
+        private final long id;
+        private final long investedMicros;
+        private final long profitMicros;
+        private final long version;
+        private final Change change;
+        private long generatedId;
+
+        public Row(Investment source, long id, long investedMicros, long profitMicros, long version, Change change) {
+            this.source = source;
+            this.id = id;
+            this.investedMicros = investedMicros;
+            this.profitMicros = profitMicros;
+            this.version = version;
+            this.change = change;
+        }
+
+        /** The live investment this row was copied from. */
+        public Investment getSource() {
+            return source;
+        }
+
+        /** Storage row id, or 0 if none has been assigned yet. */
+        public long getId() {
+            return id;
+        }
+
+        public long getInvestedMicros() {
+            return investedMicros;
+        }
+
+        public BigDecimal getInvested() {
+            return MoneyUnits.toBigDecimal(investedMicros);
+        }
+
+        public BigDecimal getProfit() {
+            return MoneyUnits.toBigDecimal(profitMicros);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Change getChange() {
+            return change;
+        }
+
+        /** Row id assigned by storage on INSERT; 0 if none. */
+        public long getGeneratedId() {
+            return generatedId;
+        }
+
+        public void setGeneratedId(long generatedId) {
+            this.generatedId = generatedId;
+        }
+    }
+
+    private final UUID owner;
+    private final List<Row> rows;
+    private final long[] removedIds;
+    private final boolean autoCollect;
+    private final boolean autoCollectChanged;
+    private final Consumer<ProfileSnapshot> onPersisted;
+
+    public ProfileSnapshot(UUID owner,
+                           List<Row> rows,
+                           long[] removedIds,
+                           boolean autoCollect,
+                           boolean autoCollectChanged,
+                           Consumer<ProfileSnapshot> onPersisted) {
+        this.owner = owner;
+        this.rows = Collections.unmodifiableList(rows);
+        this.removedIds = removedIds;
+        this.autoCollect = autoCollect;
+        this.autoCollectChanged = autoCollectChanged;
+        this.onPersisted = onPersisted;
+    }
+
+    public UUID getOwner() {
+        return owner;
+    }
+
+    /** Every current investment, changed or not. */
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /** Ids of investments deleted since the last write (0 for backends without row ids). */
+    public long[] getRemovedIds() {
+        return removedIds;
+    }
+
+    public boolean isAutoCollect() {
+        return autoCollect;
+    }
+
+    public boolean isAutoCollectChanged() {
+        return autoCollectChanged;
+    }
+
+    public boolean hasChanges() {
+        if (autoCollectChanged || removedIds.length > 0) {
+            return true;
+        }
+        for (Row row : rows) {
+            if (row.change != Change.NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Call once storage has committed this snapshot, so the live profile is marked clean. */
+    public void markPersisted() {
+        onPersisted.accept(this);
+    }
+}
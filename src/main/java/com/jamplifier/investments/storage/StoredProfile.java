@@ -0,0 +1,30 @@
+package com.jamplifier.investments.storage;
+
+import com.jamplifier.investments.investment.Investment;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Everything storage holds for one player, read in a single round trip. */
+public final class StoredProfile {
+
+    private final List<Investment> investments;
+    private final boolean autoCollect;
+
+    public StoredProfile(List<Investment> investments, boolean autoCollect) {
+        this.investments = Collections.unmodifiableList(investments);
+        this.autoCollect = autoCollect;
+    }
+
+    public static StoredProfile empty() {
+        return new StoredProfile(Collections.emptyList(), false);
+    }
+
+    public List<Investment> getInvestments() {
+        return investments;
+    }
+
+    public boolean isAutoCollect() {
+        return autoCollect;
+    }
+}
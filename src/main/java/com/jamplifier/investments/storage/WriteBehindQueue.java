@@ -0,0 +1,232 @@
+package com.jamplifier.investments.storage;
+
+import com.jamplifier.investments.InvestmentsPlugin;
+import com.jamplifier.investments.util.ConfigKeys;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind layer in front of {@link InvestmentStorage}.
+ *
+ * A save only marks the player dirty; repeated saves for the same player
+ * before the next flush collapse into one write. A single background thread
+ * flushes on a fixed interval, or early once enough players are dirty.
+ * The snapshot is taken when the flush runs, so it is always the latest state.
+ * A flush writes its players through {@link InvestmentStorage#saveProfiles}
+ * in batches, so a full interest round costs a few transactions, not one per player.
+ */
+public class WriteBehindQueue {
+
+    private final InvestmentsPlugin plugin;
+    private final InvestmentStorage storage;
+
+    private final Map<UUID, Supplier<ProfileSnapshot>> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    // flushes and write-through saves must not interleave, or a profile's row ids could be lost
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService executor;
+
+    private ScheduledFuture<?> periodicFlush;
+    private volatile boolean enabled;
+    private volatile int flushThreshold;
+    private volatile int batchSize;
+    private volatile boolean closed;
+
+    public WriteBehindQueue(InvestmentsPlugin plugin, InvestmentStorage storage) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Investments-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloadFromConfig();
+    }
+
+    public synchronized void reloadFromConfig() {
+        FileConfiguration cfg = plugin.getConfig();
+
+        enabled = cfg.getBoolean(ConfigKeys.WRITE_BEHIND_ENABLED, true);
+        flushThreshold = Math.max(1, cfg.getInt(ConfigKeys.WRITE_BEHIND_FLUSH_THRESHOLD, 256));
+        batchSize = Math.max(1, cfg.getInt(ConfigKeys.WRITE_BEHIND_BATCH_SIZE, 500));
+        long intervalMillis = Math.max(50L, cfg.getLong(ConfigKeys.WRITE_BEHIND_FLUSH_INTERVAL_MILLIS, 5000L));
+
+        if (periodicFlush != null) {
+            periodicFlush.cancel(false);
+            periodicFlush = null;
+        }
+
+        if (closed) {
+            return;
+        }
+
+        if (enabled) {
+            periodicFlush = executor.scheduleWithFixedDelay(
+                    this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else if (!dirty.isEmpty()) {
+            // switched off: write out what was already queued
+            requestFlush();
+        }
+    }
+
+    /**
+     * Queue a save for this player. The supplier is called on the flush
+     * thread and must return a consistent copy of the profile.
+     */
+    public void save(UUID owner, Supplier<ProfileSnapshot> snapshot) {
+        if (!enabled || closed) {
+            dirty.remove(owner);
+            synchronized (writeLock) {
+                write(snapshot.get());
+            }
+            return;
+        }
+
+        dirty.put(owner, snapshot);
+        if (dirty.size() >= flushThreshold) {
+            requestFlush();
+        }
+    }
+
+    /** True while a save for this player is queued and not yet picked up by a flush. */
+    public boolean isPending(UUID owner) {
+        return dirty.containsKey(owner);
+    }
+
+    /** Players with changes not yet written. */
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Stop accepting deferred writes, flush everything and wait up to
+     * {@code timeoutSeconds} for it. Later saves are written through.
+     */
+    public void close(long timeoutSeconds) {
+        synchronized (this) {
+            closed = true;
+            if (periodicFlush != null) {
+                periodicFlush.cancel(false);
+                periodicFlush = null;
+            }
+        }
+
+        try {
+            executor.execute(this::flushSafely);
+        } catch (RejectedExecutionException ignored) {
+            // already shut down
+        }
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(Math.max(1L, timeoutSeconds), TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("[Investments] Timed out after " + timeoutSeconds
+                        + "s flushing profiles; " + dirty.size() + " may not have been saved.");
+                executor.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            return;
+        }
+
+        // anything that slipped in while the last flush was running
+        flushSafely();
+    }
+
+    private void requestFlush() {
+        if (!flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                flushQueued.set(false);
+                flushSafely();
+            });
+        } catch (RejectedExecutionException ex) {
+            flushQueued.set(false);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            plugin.getLogger().severe("[Investments] Error flushing profiles: " + ex.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            int limit = batchSize;
+            List<Map.Entry<UUID, Supplier<ProfileSnapshot>>> pending = new ArrayList<>(Math.min(limit, dirty.size()));
+            List<ProfileSnapshot> snapshots = new ArrayList<>(Math.min(limit, dirty.size()));
+            List<Map.Entry<UUID, Supplier<ProfileSnapshot>>> failed = new ArrayList<>();
+
+            for (Map.Entry<UUID, Supplier<ProfileSnapshot>> entry : dirty.entrySet()) {
+                // remove before snapshotting: a save landing after this re-queues the player
+                if (!dirty.remove(entry.getKey(), entry.getValue())) {
+                    continue;
+                }
+
+                ProfileSnapshot snapshot = entry.getValue().get();
+                if (!snapshot.hasChanges()) {
+                    continue;
+                }
+
+                pending.add(entry);
+                snapshots.add(snapshot);
+                if (snapshots.size() >= limit) {
+                    writeBatch(pending, snapshots, failed);
+                    pending.clear();
+                    snapshots.clear();
+                }
+            }
+
+            if (!snapshots.isEmpty()) {
+                writeBatch(pending, snapshots, failed);
+            }
+
+            // keep them for the next flush, unless a newer save already did
+            for (Map.Entry<UUID, Supplier<ProfileSnapshot>> entry : failed) {
+                dirty.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void writeBatch(List<Map.Entry<UUID, Supplier<ProfileSnapshot>>> pending,
+                            List<ProfileSnapshot> snapshots,
+                            List<Map.Entry<UUID, Supplier<ProfileSnapshot>>> failed) {
+        if (storage.saveProfiles(snapshots)) {
+            for (ProfileSnapshot snapshot : snapshots) {
+                snapshot.markPersisted();
+            }
+        } else {
+            failed.addAll(pending);
+        }
+    }
+
+    /** Caller holds writeLock. Unchanged profiles are skipped without touching storage. */
+    private void write(ProfileSnapshot snapshot) {
+        if (snapshot.hasChanges() && storage.saveProfile(snapshot)) {
+            snapshot.markPersisted();
+        }
+    }
+}
@@ -3,20 +3,32 @@ package com.jamplifier.investments.storage.mongo;
 import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.investment.Investment;
 import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.PlayerTotals;
+import com.jamplifier.investments.storage.ProfileSnapshot;
+import com.jamplifier.investments.storage.StoredProfile;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
 import org.bson.Document;
+import org.bson.types.Decimal128;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Logger;
 
 /**
  * MongoDB implementation of InvestmentStorage.
@@ -33,20 +45,27 @@ import java.util.UUID;
  */
 public class MongoInvestmentStorage implements InvestmentStorage {
 
-    private final InvestmentsPlugin plugin;
+    private final FileConfiguration config;
+    private final Logger logger;
 
     private MongoClient client;
     private MongoCollection<Document> collection;
 
     public MongoInvestmentStorage(InvestmentsPlugin plugin) {
-        this.plugin = plugin;
+        this(plugin.getConfig(), plugin.getLogger());
+    }
+
+    /** Without a plugin, e.g. for the storage contract harness. */
+    public MongoInvestmentStorage(FileConfiguration config, Logger logger) {
+        this.config = config;
+        this.logger = logger;
     }
 
     // IMPORTANT: no "throws Exception" here – must match InvestmentStorage.init()
     @Override
     public void init() {
         try {
-            FileConfiguration cfg = plugin.getConfig();
+            FileConfiguration cfg = config;
 
             String uri = cfg.getString("mongodb.uri", "mongodb://localhost:27017");
             String dbName = cfg.getString("mongodb.database", "investments");
@@ -56,21 +75,24 @@ public class MongoInvestmentStorage implements InvestmentStorage {
             MongoDatabase db = client.getDatabase(dbName);
             collection = db.getCollection(collName);
 
-            plugin.getLogger().info("[Investments] Connected to MongoDB: " + uri + " / " + dbName + "." + collName);
+            logger.info("[Investments] Connected to MongoDB: " + uri + " / " + dbName + "." + collName);
         } catch (Exception ex) {
-            plugin.getLogger().severe("[Investments] Failed to initialize MongoDB storage: " + ex.getMessage());
+            logger.severe("[Investments] Failed to initialize MongoDB storage: " + ex.getMessage());
             ex.printStackTrace();
             // leave collection null; calls will just no-op / return empty
         }
     }
 
     @Override
-    public List<Investment> loadInvestments(UUID owner) {
-        if (collection == null) return Collections.emptyList();
+    public StoredProfile loadProfile(UUID owner) {
+        if (collection == null) return StoredProfile.empty();
 
-        Document doc = collection.find(Filters.eq("_id", owner.toString())).first();
+        // one read for both fields, skipping anything else stored on the document
+        Document doc = collection.find(Filters.eq("_id", owner.toString()))
+                .projection(Projections.include("autoCollect", "investments"))
+                .first();
         if (doc == null) {
-            return Collections.emptyList();
+            return StoredProfile.empty();
         }
 
         List<Document> invDocs = doc.getList("investments", Document.class, Collections.emptyList());
@@ -87,49 +109,97 @@ public class MongoInvestmentStorage implements InvestmentStorage {
             try {
                 BigDecimal invested = new BigDecimal(investedStr);
                 BigDecimal profit = profitStr != null ? new BigDecimal(profitStr) : BigDecimal.ZERO;
-                list.add(new Investment(owner, invested, profit));
+                list.add(new Investment(owner, 0L, invested, profit));
             } catch (NumberFormatException ex) {
-                plugin.getLogger().warning("[Investments] Invalid BigDecimal in Mongo for " + owner + ": " + ex.getMessage());
+                logger.warning("[Investments] Invalid BigDecimal in Mongo for " + owner + ": " + ex.getMessage());
             }
         }
 
-        return list;
+        Boolean autoCollect = doc.getBoolean("autoCollect");
+        return new StoredProfile(list, autoCollect != null && autoCollect);
     }
 
+    /** Summed server-side: each document's invested strings are converted to decimals and added up. */
     @Override
-    public boolean loadAutoCollect(UUID owner) {
-        if (collection == null) return false;
+    public Map<UUID, PlayerTotals> loadPlayerTotals() {
+        Map<UUID, PlayerTotals> totals = new HashMap<>();
+        if (collection == null) return totals;
+
+        List<Document> pipeline = Arrays.asList(
+                new Document("$match", new Document("investments.0", new Document("$exists", true))),
+                new Document("$project", new Document("invested", sumField("invested"))
+                        .append("profit", sumField("profit")))
+        );
 
-        Document doc = collection.find(Filters.eq("_id", owner.toString())).first();
-        if (doc == null) return false;
+        try {
+            for (Document doc : collection.aggregate(pipeline)) {
+                totals.put(UUID.fromString(doc.getString("_id")),
+                        new PlayerTotals(toBigDecimal(doc.get("invested")), toBigDecimal(doc.get("profit"))));
+            }
+        } catch (Exception ex) {
+            logger.severe("[Investments] Error loading investment totals from MongoDB: " + ex.getMessage());
+        }
+        return totals;
+    }
+
+    // {$sum: investments[*].<field> as decimals}; amounts are stored as strings
+    private static Document sumField(String field) {
+        return new Document("$sum", new Document("$map", new Document("input", "$investments")
+                .append("in", new Document("$toDecimal", "$$this." + field))));
+    }
 
-        Boolean value = doc.getBoolean("autoCollect");
-        return value != null && value;
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128) {
+            return ((Decimal128) value).bigDecimalValue();
+        }
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
     }
 
     @Override
-    public void saveProfile(UUID owner, List<Investment> investments, boolean autoCollect) {
-        if (collection == null) return;
+    public boolean saveProfile(ProfileSnapshot snapshot) {
+        return saveProfiles(Collections.singletonList(snapshot));
+    }
 
+    /** One bulkWrite for all players. Replacements are idempotent, so a failed batch is simply retried. */
+    @Override
+    public boolean saveProfiles(Collection<ProfileSnapshot> snapshots) {
+        if (collection == null) return false;
+        if (snapshots.isEmpty()) return true;
+
+        List<ReplaceOneModel<Document>> writes = new ArrayList<>(snapshots.size());
+        for (ProfileSnapshot snapshot : snapshots) {
+            String owner = snapshot.getOwner().toString();
+            writes.add(new ReplaceOneModel<>(
+                    Filters.eq("_id", owner),
+                    toDocument(snapshot),
+                    new ReplaceOptions().upsert(true)
+            ));
+        }
+
+        try {
+            collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            return true;
+        } catch (Exception ex) {
+            logger.severe("[Investments] Error saving " + snapshots.size()
+                    + " Mongo profile(s): " + ex.getMessage());
+            return false;
+        }
+    }
+
+    // one document per player, so it is always rewritten as a whole
+    private Document toDocument(ProfileSnapshot snapshot) {
         List<Document> invDocs = new ArrayList<>();
-        for (Investment inv : investments) {
-            Document invDoc = new Document("invested", inv.getInvested().toPlainString())
-                    .append("profit", inv.getProfit().toPlainString());
+        for (ProfileSnapshot.Row row : snapshot.getRows()) {
+            Document invDoc = new Document("invested", row.getInvested().toPlainString())
+                    .append("profit", row.getProfit().toPlainString());
             invDocs.add(invDoc);
         }
 
-        Document doc = new Document("_id", owner.toString())
-                .append("autoCollect", autoCollect)
+        return new Document("_id", snapshot.getOwner().toString())
+                .append("autoCollect", snapshot.isAutoCollect())
                 .append("investments", invDocs);
-
-        collection.replaceOne(
-                Filters.eq("_id", owner.toString()),
-                doc,
-                new ReplaceOptions().upsert(true)
-        );
     }
 
-    // NEW: implement the missing method from InvestmentStorage
     @Override
     public void deleteInvestments(UUID owner) {
         if (collection == null) return;
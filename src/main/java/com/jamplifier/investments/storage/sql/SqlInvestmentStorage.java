@@ -3,7 +3,11 @@ package com.jamplifier.investments.storage.sql;
 import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.investment.Investment;
 import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.PlayerTotals;
+import com.jamplifier.investments.storage.ProfileSnapshot;
+import com.jamplifier.investments.storage.StoredProfile;
 import com.jamplifier.investments.util.ConfigKeys;
+import com.jamplifier.investments.util.MoneyUnits;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -11,21 +15,57 @@ import org.bukkit.configuration.file.FileConfiguration;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Logger;
 
 public class SqlInvestmentStorage implements InvestmentStorage {
 
-    private final InvestmentsPlugin plugin;
+    // investments and the profile row in one statement; row_kind tells them apart
+    private static final String SELECT_PROFILE_SQL =
+            "SELECT 0 AS row_kind, id, invested, profit FROM investments WHERE player_uuid = ? " +
+            "UNION ALL " +
+            "SELECT 1, auto_collect, NULL, NULL FROM investment_profiles WHERE player_uuid = ?";
+    private static final String SELECT_TOTALS_SQL =
+            "SELECT player_uuid, SUM(invested) AS invested, SUM(profit) AS profit FROM investments GROUP BY player_uuid";
+    private static final String INSERT_INVESTMENT_SQL =
+            "INSERT INTO investments (player_uuid, invested, profit) VALUES (?, ?, ?)";
+    private static final String UPDATE_PROFIT_SQL = "UPDATE investments SET profit = ? WHERE id = ?";
+    private static final String UPDATE_INVESTMENT_SQL = "UPDATE investments SET invested = ?, profit = ? WHERE id = ?";
+    private static final String DELETE_INVESTMENT_SQL = "DELETE FROM investments WHERE id = ?";
+    private static final String UPSERT_PROFILE_SQL =
+            "INSERT INTO investment_profiles (player_uuid, auto_collect) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE auto_collect = VALUES(auto_collect)";
+
+    // micros, as kept in memory
+    private static final int AMOUNT_SCALE = MoneyUnits.SCALE;
+
+    private final FileConfiguration config;
+    private final Logger logger;
+    private final String jdbcUrlOverride;
     private HikariDataSource dataSource;
 
     public SqlInvestmentStorage(InvestmentsPlugin plugin) {
-        this.plugin = plugin;
+        this(plugin.getConfig(), plugin.getLogger(), null);
+    }
+
+    /**
+     * Without a plugin, e.g. for the storage contract harness.
+     * A non-null {@code jdbcUrl} is used instead of the one built from mysql.host etc.
+     */
+    public SqlInvestmentStorage(FileConfiguration config, Logger logger, String jdbcUrl) {
+        this.config = config;
+        this.logger = logger;
+        this.jdbcUrlOverride = jdbcUrl;
     }
 
     @Override
     public void init() {
-        FileConfiguration cfg = plugin.getConfig();
+        FileConfiguration cfg = config;
 
         String host = cfg.getString("mysql.host", "localhost");
         int port = cfg.getInt("mysql.port", 3306);
@@ -35,17 +75,22 @@ public class SqlInvestmentStorage implements InvestmentStorage {
         boolean useSsl = cfg.getBoolean("mysql.use-ssl", false);
         int maxPool = cfg.getInt("mysql.max-pool-size", 10);
 
-        String jdbcUrl = "jdbc:mysql://" + host + ":" + port + "/" + database
-                + "?useSSL=" + useSsl + "&useUnicode=true&characterEncoding=utf8";
+        String jdbcUrl = jdbcUrlOverride;
+        if (jdbcUrl == null) {
+            jdbcUrl = "jdbc:mysql://" + host + ":" + port + "/" + database
+                    + "?useSSL=" + useSsl + "&useUnicode=true&characterEncoding=utf8"
+                    // lets the driver send a JDBC batch as one multi-row statement
+                    + "&rewriteBatchedStatements=true";
+        }
 
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(jdbcUrl);
-        config.setUsername(user);
-        config.setPassword(pass);
-        config.setMaximumPoolSize(maxPool);
-        config.setPoolName("Investments-HikariPool");
+        HikariConfig hikari = new HikariConfig();
+        hikari.setJdbcUrl(jdbcUrl);
+        hikari.setUsername(user);
+        hikari.setPassword(pass);
+        hikari.setMaximumPoolSize(maxPool);
+        hikari.setPoolName("Investments-HikariPool");
 
-        this.dataSource = new HikariDataSource(config);
+        this.dataSource = new HikariDataSource(hikari);
 
         createTables();
     }
@@ -54,8 +99,8 @@ public class SqlInvestmentStorage implements InvestmentStorage {
         String investmentsTable = "CREATE TABLE IF NOT EXISTS investments (" +
                 "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
                 "player_uuid CHAR(36) NOT NULL," +
-                "invested DECIMAL(18,2) NOT NULL," +
-                "profit DECIMAL(18,2) NOT NULL," +
+                "invested DECIMAL(24,6) NOT NULL," +
+                "profit DECIMAL(24,6) NOT NULL," +
                 "INDEX idx_player_uuid (player_uuid)" +
                 ") ENGINE=InnoDB;";
 
@@ -69,10 +114,32 @@ public class SqlInvestmentStorage implements InvestmentStorage {
 
             st.executeUpdate(investmentsTable);
             st.executeUpdate(profilesTable);
+            widenAmountColumns(conn, st);
 
         } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to create tables: " + e.getMessage());
+            logger.severe("Failed to create tables: " + e.getMessage());
+        }
+    }
+
+    // Tables created by earlier versions have DECIMAL(18,2) columns, which round
+    // sub-cent deposits on every write. Widen them once; both columns in one
+    // statement, so the table is rebuilt only once.
+    private void widenAmountColumns(Connection conn, Statement st) throws SQLException {
+        int scale = AMOUNT_SCALE;
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, "investments", "profit")) {
+            if (rs.next()) {
+                scale = rs.getInt("DECIMAL_DIGITS");
+            }
+        }
+        if (scale >= AMOUNT_SCALE) {
+            return;
         }
+
+        logger.warning("Widening investments.invested/profit to DECIMAL(24,6). This rebuilds the "
+                + "table once; writes to it wait until it is done.");
+        st.executeUpdate("ALTER TABLE investments "
+                + "MODIFY invested DECIMAL(24,6) NOT NULL, "
+                + "MODIFY profit DECIMAL(24,6) NOT NULL");
     }
 
     private Connection getConnection() throws SQLException {
@@ -80,85 +147,162 @@ public class SqlInvestmentStorage implements InvestmentStorage {
     }
 
     @Override
-    public List<Investment> loadInvestments(UUID playerId) {
+    public StoredProfile loadProfile(UUID playerId) {
         List<Investment> list = new ArrayList<>();
-
-        String sql = "SELECT invested, profit FROM investments WHERE player_uuid = ?";
+        boolean autoCollect = false;
 
         try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SELECT_PROFILE_SQL)) {
 
             ps.setString(1, playerId.toString());
+            ps.setString(2, playerId.toString());
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
+                    if (rs.getInt("row_kind") == 1) {
+                        // id column carries auto_collect on the profile row
+                        autoCollect = rs.getLong("id") != 0L;
+                        continue;
+                    }
                     BigDecimal invested = rs.getBigDecimal("invested");
                     BigDecimal profit = rs.getBigDecimal("profit");
-                    list.add(new Investment(playerId, invested, profit));
+                    list.add(new Investment(playerId, rs.getLong("id"), invested, profit));
                 }
             }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Error loading investments for " + playerId + ": " + e.getMessage());
+            logger.severe("Error loading profile for " + playerId + ": " + e.getMessage());
         }
 
-        return list;
+        return new StoredProfile(list, autoCollect);
     }
 
     @Override
-    public boolean loadAutoCollect(UUID playerId) {
-        String sql = "SELECT auto_collect FROM investment_profiles WHERE player_uuid = ?";
+    public Map<UUID, PlayerTotals> loadPlayerTotals() {
+        Map<UUID, PlayerTotals> totals = new HashMap<>();
 
         try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SELECT_TOTALS_SQL);
+             ResultSet rs = ps.executeQuery()) {
 
-            ps.setString(1, playerId.toString());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getBoolean("auto_collect");
-                }
+            while (rs.next()) {
+                totals.put(UUID.fromString(rs.getString("player_uuid")),
+                        new PlayerTotals(rs.getBigDecimal("invested"), rs.getBigDecimal("profit")));
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error loading autoCollect for " + playerId + ": " + e.getMessage());
+        } catch (SQLException | IllegalArgumentException e) {
+            logger.severe("Error loading investment totals: " + e.getMessage());
         }
 
-        return false;
+        return totals;
+    }
+
+    @Override
+    public boolean saveProfile(ProfileSnapshot snapshot) {
+        return saveProfiles(Collections.singletonList(snapshot));
     }
 
     @Override
-    public void saveProfile(UUID playerId, List<Investment> investments, boolean autoCollect) {
-        String deleteInvSql = "DELETE FROM investments WHERE player_uuid = ?";
-        String insertInvSql = "INSERT INTO investments (player_uuid, invested, profit) VALUES (?, ?, ?)";
-        String upsertProfileSql = "INSERT INTO investment_profiles (player_uuid, auto_collect) VALUES (?, ?) " +
-                "ON DUPLICATE KEY UPDATE auto_collect = VALUES(auto_collect)";
+    public boolean saveProfiles(Collection<ProfileSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return true;
 
         try (Connection conn = getConnection()) {
             conn.setAutoCommit(false);
-
-            try (PreparedStatement delInv = conn.prepareStatement(deleteInvSql)) {
-                delInv.setString(1, playerId.toString());
-                delInv.executeUpdate();
+            try {
+                writeProfiles(conn, snapshots);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
+        } catch (SQLException e) {
+            logger.severe("Error saving " + snapshots.size() + " profile(s): " + e.getMessage());
+            return false;
+        }
+    }
 
-            if (!investments.isEmpty()) {
-                try (PreparedStatement insInv = conn.prepareStatement(insertInvSql)) {
-                    for (Investment inv : investments) {
-                        insInv.setString(1, playerId.toString());
-                        insInv.setBigDecimal(2, inv.getInvested());
-                        insInv.setBigDecimal(3, inv.getProfit());
-                        insInv.addBatch();
+    /**
+     * Only the rows that changed, batched across all players: one batch per
+     * statement kind, so many players cost a handful of round trips.
+     */
+    private void writeProfiles(Connection conn, Collection<ProfileSnapshot> snapshots) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement(DELETE_INVESTMENT_SQL);
+             PreparedStatement updateProfit = conn.prepareStatement(UPDATE_PROFIT_SQL);
+             PreparedStatement update = conn.prepareStatement(UPDATE_INVESTMENT_SQL);
+             PreparedStatement upsertProfile = conn.prepareStatement(UPSERT_PROFILE_SQL)) {
+
+            int deletes = 0;
+            int profitUpdates = 0;
+            int updates = 0;
+            int profileUpserts = 0;
+
+            for (ProfileSnapshot snapshot : snapshots) {
+                for (long id : snapshot.getRemovedIds()) {
+                    if (id <= 0) continue;
+                    delete.setLong(1, id);
+                    delete.addBatch();
+                    deletes++;
+                }
+
+                for (ProfileSnapshot.Row row : snapshot.getRows()) {
+                    switch (row.getChange()) {
+                        case UPDATE_PROFIT:
+                            updateProfit.setBigDecimal(1, row.getProfit());
+                            updateProfit.setLong(2, row.getId());
+                            updateProfit.addBatch();
+                            profitUpdates++;
+                            break;
+                        case UPDATE:
+                            update.setBigDecimal(1, row.getInvested());
+                            update.setBigDecimal(2, row.getProfit());
+                            update.setLong(3, row.getId());
+                            update.addBatch();
+                            updates++;
+                            break;
+                        default:
+                            break;
                     }
-                    insInv.executeBatch();
                 }
-            }
 
-            try (PreparedStatement upsertProf = conn.prepareStatement(upsertProfileSql)) {
-                upsertProf.setString(1, playerId.toString());
-                upsertProf.setBoolean(2, autoCollect);
-                upsertProf.executeUpdate();
+                if (snapshot.isAutoCollectChanged()) {
+                    upsertProfile.setString(1, snapshot.getOwner().toString());
+                    upsertProfile.setBoolean(2, snapshot.isAutoCollect());
+                    upsertProfile.addBatch();
+                    profileUpserts++;
+                }
             }
 
-            conn.commit();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error saving profile for " + playerId + ": " + e.getMessage());
+            if (deletes > 0) delete.executeBatch();
+            if (profitUpdates > 0) updateProfit.executeBatch();
+            if (updates > 0) update.executeBatch();
+            if (profileUpserts > 0) upsertProfile.executeBatch();
+        }
+
+        insertNewRows(conn, snapshots);
+    }
+
+    /** New investments go one at a time: batched generated keys are not reliable across drivers. */
+    private void insertNewRows(Connection conn, Collection<ProfileSnapshot> snapshots) throws SQLException {
+        PreparedStatement insert = null;
+        try {
+            for (ProfileSnapshot snapshot : snapshots) {
+                for (ProfileSnapshot.Row row : snapshot.getRows()) {
+                    if (row.getChange() != ProfileSnapshot.Change.INSERT) continue;
+
+                    if (insert == null) {
+                        insert = conn.prepareStatement(INSERT_INVESTMENT_SQL, Statement.RETURN_GENERATED_KEYS);
+                    }
+                    insert.setString(1, snapshot.getOwner().toString());
+                    insert.setBigDecimal(2, row.getInvested());
+                    insert.setBigDecimal(3, row.getProfit());
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            row.setGeneratedId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (insert != null) insert.close();
         }
     }
 
@@ -171,7 +315,7 @@ public class SqlInvestmentStorage implements InvestmentStorage {
             ps.setString(1, playerId.toString());
             ps.executeUpdate();
         } catch (SQLException e) {
-            plugin.getLogger().severe("Error deleting investments for " + playerId + ": " + e.getMessage());
+            logger.severe("Error deleting investments for " + playerId + ": " + e.getMessage());
         }
     }
 
@@ -0,0 +1,81 @@
+package com.jamplifier.investments.storage.sql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A long-lived SQLite connection with its prepared statements cached, so
+ * each call skips reopening the file, re-reading the schema and re-preparing SQL.
+ *
+ * Not thread-safe: callers synchronize on the instance for the whole
+ * operation (statement use and result reading included).
+ */
+final class SqliteConnection {
+
+    private final String jdbcUrl;
+    private final List<String> pragmas;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private Connection connection;
+
+    SqliteConnection(String jdbcUrl, List<String> pragmas) {
+        this.jdbcUrl = jdbcUrl;
+        this.pragmas = pragmas;
+    }
+
+    Connection get() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            statements.clear();
+            connection = DriverManager.getConnection(jdbcUrl);
+            try (Statement st = connection.createStatement()) {
+                for (String pragma : pragmas) {
+                    st.execute("PRAGMA " + pragma);
+                }
+            }
+        }
+        return connection;
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null) {
+            ps = get().prepareStatement(sql);
+            statements.put(sql, ps);
+        }
+        return ps;
+    }
+
+    PreparedStatement prepareWithKeys(String sql) throws SQLException {
+        String key = "keys:" + sql;
+        PreparedStatement ps = statements.get(key);
+        if (ps == null) {
+            ps = get().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            statements.put(key, ps);
+        }
+        return ps;
+    }
+
+    /** Drop the connection and every cached statement, e.g. after a failed write left batches behind. */
+    void close() {
+        for (PreparedStatement ps : statements.values()) {
+            try {
+                ps.close();
+            } catch (SQLException ignored) {
+            }
+        }
+        statements.clear();
+
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+            connection = null;
+        }
+    }
+}
@@ -3,45 +3,104 @@ package com.jamplifier.investments.storage.sql;
 import com.jamplifier.investments.InvestmentsPlugin;
 import com.jamplifier.investments.investment.Investment;
 import com.jamplifier.investments.storage.InvestmentStorage;
+import com.jamplifier.investments.storage.PlayerTotals;
+import com.jamplifier.investments.storage.ProfileSnapshot;
+import com.jamplifier.investments.storage.StoredProfile;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Logger;
 
 /**
  * SQLite implementation of InvestmentStorage.
  * Stores BigDecimal values as TEXT for full precision.
+ *
+ * Keeps one writer and one reader connection open for the plugin's
+ * lifetime. In WAL mode, loads on the reader don't wait for a save in
+ * progress on the writer.
  */
 public class SqliteInvestmentStorage implements InvestmentStorage {
 
-    private final InvestmentsPlugin plugin;
-    private String jdbcUrl;
+    // investments and the profile row in one statement; row_kind tells them apart
+    private static final String SELECT_PROFILE_SQL =
+            "SELECT 0 AS row_kind, id, invested, profit FROM investments WHERE player_uuid = ? " +
+            "UNION ALL " +
+            "SELECT 1, auto_collect, NULL, NULL FROM investment_profiles WHERE player_uuid = ?";
+    // amounts are TEXT, and SUM() would go through doubles: add them up as BigDecimal instead
+    private static final String SELECT_AMOUNTS_SQL =
+            "SELECT player_uuid, invested, profit FROM investments";
+    private static final String INSERT_INVESTMENT_SQL =
+            "INSERT INTO investments (player_uuid, invested, profit) VALUES (?, ?, ?)";
+    private static final String UPDATE_PROFIT_SQL = "UPDATE investments SET profit = ? WHERE id = ?";
+    private static final String UPDATE_INVESTMENT_SQL = "UPDATE investments SET invested = ?, profit = ? WHERE id = ?";
+    private static final String DELETE_INVESTMENT_SQL = "DELETE FROM investments WHERE id = ?";
+    private static final String DELETE_PLAYER_INVESTMENTS_SQL = "DELETE FROM investments WHERE player_uuid = ?";
+    private static final String UPSERT_PROFILE_SQL =
+            "INSERT INTO investment_profiles (player_uuid, auto_collect) VALUES (?, ?) " +
+            "ON CONFLICT(player_uuid) DO UPDATE SET auto_collect = excluded.auto_collect";
+
+    private final FileConfiguration config;
+    private final File dataFolder;
+    private final Logger logger;
+    private SqliteConnection writer;
+    private SqliteConnection reader;
 
     public SqliteInvestmentStorage(InvestmentsPlugin plugin) {
-        this.plugin = plugin;
+        this(plugin.getConfig(), plugin.getDataFolder(), plugin.getLogger());
+    }
+
+    /** Without a plugin, e.g. for the storage contract harness. */
+    public SqliteInvestmentStorage(FileConfiguration config, File dataFolder, Logger logger) {
+        this.config = config;
+        this.dataFolder = dataFolder;
+        this.logger = logger;
     }
 
     @Override
     public void init() {
-        FileConfiguration cfg = plugin.getConfig();
+        FileConfiguration cfg = config;
         String fileName = cfg.getString("sqlite.file", "investments.db");
+        long cacheKb = Math.max(0L, cfg.getLong("sqlite.cache-size-kb", 8192L));
+        long mmapMb = Math.max(0L, cfg.getLong("sqlite.mmap-size-mb", 64L));
 
-        File dbFile = new File(plugin.getDataFolder(), fileName);
+        File dbFile = new File(dataFolder, fileName);
         if (!dbFile.getParentFile().exists()) {
             dbFile.getParentFile().mkdirs();
         }
 
-        this.jdbcUrl = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+        String jdbcUrl = "jdbc:sqlite:" + dbFile.getAbsolutePath();
 
-        createTables();
-    }
+        // negative cache_size = KiB rather than pages
+        List<String> common = Arrays.asList(
+                "busy_timeout = 5000",
+                "cache_size = -" + cacheKb,
+                "mmap_size = " + (mmapMb * 1024L * 1024L),
+                "temp_store = MEMORY"
+        );
+
+        List<String> writerPragmas = new ArrayList<>();
+        writerPragmas.add("journal_mode = WAL");
+        // safe with WAL: a crash can lose the last commits, never corrupt the file
+        writerPragmas.add("synchronous = NORMAL");
+        writerPragmas.addAll(common);
 
-    private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(jdbcUrl);
+        List<String> readerPragmas = new ArrayList<>(common);
+        readerPragmas.add("query_only = ON");
+
+        this.writer = new SqliteConnection(jdbcUrl, writerPragmas);
+        this.reader = new SqliteConnection(jdbcUrl, readerPragmas);
+
+        createTables();
     }
 
     private void createTables() {
@@ -52,127 +111,232 @@ public class SqliteInvestmentStorage implements InvestmentStorage {
                 "profit TEXT NOT NULL" +
                 ");";
 
+        String investmentsIndex = "CREATE INDEX IF NOT EXISTS idx_investments_player_uuid " +
+                "ON investments (player_uuid);";
+
         String profilesTable = "CREATE TABLE IF NOT EXISTS investment_profiles (" +
                 "player_uuid TEXT NOT NULL PRIMARY KEY," +
                 "auto_collect INTEGER NOT NULL DEFAULT 0" +
                 ");";
 
-        try (Connection conn = getConnection();
-             Statement st = conn.createStatement()) {
+        synchronized (writer) {
+            try (Statement st = writer.get().createStatement()) {
 
-            st.executeUpdate(investmentsTable);
-            st.executeUpdate(profilesTable);
+                st.executeUpdate(investmentsTable);
+                st.executeUpdate(investmentsIndex);
+                st.executeUpdate(profilesTable);
 
-        } catch (SQLException e) {
-            plugin.getLogger().severe("[Investments] Failed to create SQLite tables: " + e.getMessage());
+            } catch (SQLException e) {
+                logger.severe("[Investments] Failed to create SQLite tables: " + e.getMessage());
+            }
         }
     }
 
     @Override
-    public List<Investment> loadInvestments(UUID playerId) {
+    public StoredProfile loadProfile(UUID playerId) {
         List<Investment> list = new ArrayList<>();
-        String sql = "SELECT invested, profit FROM investments WHERE player_uuid = ?";
+        boolean autoCollect = false;
 
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        synchronized (reader) {
+            try {
+                PreparedStatement ps = reader.prepare(SELECT_PROFILE_SQL);
+                ps.setString(1, playerId.toString());
+                ps.setString(2, playerId.toString());
 
-            ps.setString(1, playerId.toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (rs.getInt("row_kind") == 1) {
+                            // id column carries auto_collect on the profile row
+                            autoCollect = rs.getLong("id") != 0L;
+                            continue;
+                        }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String investedStr = rs.getString("invested");
-                    String profitStr = rs.getString("profit");
+                        String investedStr = rs.getString("invested");
+                        String profitStr = rs.getString("profit");
 
-                    BigDecimal invested = new BigDecimal(investedStr);
-                    BigDecimal profit = new BigDecimal(profitStr);
+                        BigDecimal invested = new BigDecimal(investedStr);
+                        BigDecimal profit = new BigDecimal(profitStr);
 
-                    list.add(new Investment(playerId, invested, profit));
+                        list.add(new Investment(playerId, rs.getLong("id"), invested, profit));
+                    }
                 }
+            } catch (SQLException e) {
+                reader.close();
+                logger.severe("[Investments] Error loading SQLite profile for " + playerId + ": " + e.getMessage());
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("[Investments] Error loading SQLite investments for " + playerId + ": " + e.getMessage());
         }
 
-        return list;
+        return new StoredProfile(list, autoCollect);
     }
 
     @Override
-    public boolean loadAutoCollect(UUID playerId) {
-        String sql = "SELECT auto_collect FROM investment_profiles WHERE player_uuid = ?";
+    public Map<UUID, PlayerTotals> loadPlayerTotals() {
+        Map<UUID, PlayerTotals> totals = new HashMap<>();
+
+        synchronized (reader) {
+            try {
+                PreparedStatement ps = reader.prepare(SELECT_AMOUNTS_SQL);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID owner = UUID.fromString(rs.getString("player_uuid"));
+                        PlayerTotals row = new PlayerTotals(
+                                new BigDecimal(rs.getString("invested")), new BigDecimal(rs.getString("profit")));
+                        totals.merge(owner, row, PlayerTotals::sum);
+                    }
+                }
+            } catch (SQLException e) {
+                reader.close();
+                logger.severe("[Investments] Error loading SQLite investment totals: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                logger.severe("[Investments] Invalid row in SQLite investments: " + e.getMessage());
+            }
+        }
 
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        return totals;
+    }
 
-            ps.setString(1, playerId.toString());
+    @Override
+    public boolean saveProfile(ProfileSnapshot snapshot) {
+        return saveProfiles(Collections.singletonList(snapshot));
+    }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    int value = rs.getInt("auto_collect");
-                    return value != 0;
+    @Override
+    public boolean saveProfiles(Collection<ProfileSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return true;
+
+        synchronized (writer) {
+            try {
+                Connection conn = writer.get();
+                conn.setAutoCommit(false);
+                try {
+                    writeProfiles(snapshots);
+                    conn.commit();
+                } catch (SQLException e) {
+                    // roll back first: re-enabling auto-commit would commit the partial write
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ignored) {
+                    }
+                    throw e;
+                } finally {
+                    if (!conn.isClosed()) {
+                        conn.setAutoCommit(true);
+                    }
                 }
+                return true;
+            } catch (SQLException e) {
+                // rolls back and drops statements that may still hold half a batch
+                writer.close();
+                logger.severe("[Investments] Error saving SQLite " + snapshots.size() + " profile(s): " + e.getMessage());
+                return false;
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("[Investments] Error loading SQLite autoCollect for " + playerId + ": " + e.getMessage());
         }
-
-        return false;
     }
 
-    @Override
-    public void saveProfile(UUID playerId, List<Investment> investments, boolean autoCollect) {
-        String deleteInvSql = "DELETE FROM investments WHERE player_uuid = ?";
-        String insertInvSql = "INSERT INTO investments (player_uuid, invested, profit) VALUES (?, ?, ?)";
-        String upsertProfileSql = "INSERT INTO investment_profiles (player_uuid, auto_collect) VALUES (?, ?) " +
-                "ON CONFLICT(player_uuid) DO UPDATE SET auto_collect = excluded.auto_collect";
-
-        try (Connection conn = getConnection()) {
-            conn.setAutoCommit(false);
-
-            try (PreparedStatement delInv = conn.prepareStatement(deleteInvSql)) {
-                delInv.setString(1, playerId.toString());
-                delInv.executeUpdate();
+    /**
+     * Only the rows that changed, batched across all players: one batch per
+     * statement kind, so many players cost a handful of round trips.
+     */
+    private void writeProfiles(Collection<ProfileSnapshot> snapshots) throws SQLException {
+        PreparedStatement delete = writer.prepare(DELETE_INVESTMENT_SQL);
+        PreparedStatement updateProfit = writer.prepare(UPDATE_PROFIT_SQL);
+        PreparedStatement update = writer.prepare(UPDATE_INVESTMENT_SQL);
+        PreparedStatement upsertProfile = writer.prepare(UPSERT_PROFILE_SQL);
+
+        int deletes = 0;
+        int profitUpdates = 0;
+        int updates = 0;
+        int profileUpserts = 0;
+
+        for (ProfileSnapshot snapshot : snapshots) {
+            for (long id : snapshot.getRemovedIds()) {
+                if (id <= 0) continue;
+                delete.setLong(1, id);
+                delete.addBatch();
+                deletes++;
             }
 
-            if (!investments.isEmpty()) {
-                try (PreparedStatement insInv = conn.prepareStatement(insertInvSql)) {
-                    for (Investment inv : investments) {
-                        insInv.setString(1, playerId.toString());
-                        insInv.setString(2, inv.getInvested().toPlainString());
-                        insInv.setString(3, inv.getProfit().toPlainString());
-                        insInv.addBatch();
-                    }
-                    insInv.executeBatch();
+            for (ProfileSnapshot.Row row : snapshot.getRows()) {
+                switch (row.getChange()) {
+                    case UPDATE_PROFIT:
+                        updateProfit.setString(1, row.getProfit().toPlainString());
+                        updateProfit.setLong(2, row.getId());
+                        updateProfit.addBatch();
+                        profitUpdates++;
+                        break;
+                    case UPDATE:
+                        update.setString(1, row.getInvested().toPlainString());
+                        update.setString(2, row.getProfit().toPlainString());
+                        update.setLong(3, row.getId());
+                        update.addBatch();
+                        updates++;
+                        break;
+                    default:
+                        break;
                 }
             }
 
-            try (PreparedStatement upsertProf = conn.prepareStatement(upsertProfileSql)) {
-                upsertProf.setString(1, playerId.toString());
-                upsertProf.setInt(2, autoCollect ? 1 : 0);
-                upsertProf.executeUpdate();
+            if (snapshot.isAutoCollectChanged()) {
+                upsertProfile.setString(1, snapshot.getOwner().toString());
+                upsertProfile.setInt(2, snapshot.isAutoCollect() ? 1 : 0);
+                upsertProfile.addBatch();
+                profileUpserts++;
             }
+        }
+
+        if (deletes > 0) delete.executeBatch();
+        if (profitUpdates > 0) updateProfit.executeBatch();
+        if (updates > 0) update.executeBatch();
+        if (profileUpserts > 0) upsertProfile.executeBatch();
 
-            conn.commit();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("[Investments] Error saving SQLite profile for " + playerId + ": " + e.getMessage());
+        insertNewRows(snapshots);
+    }
+
+    /** New investments go one at a time: batched generated keys are not reliable across drivers. */
+    private void insertNewRows(Collection<ProfileSnapshot> snapshots) throws SQLException {
+        for (ProfileSnapshot snapshot : snapshots) {
+            for (ProfileSnapshot.Row row : snapshot.getRows()) {
+                if (row.getChange() != ProfileSnapshot.Change.INSERT) continue;
+
+                PreparedStatement insert = writer.prepareWithKeys(INSERT_INVESTMENT_SQL);
+                insert.setString(1, snapshot.getOwner().toString());
+                insert.setString(2, row.getInvested().toPlainString());
+                insert.setString(3, row.getProfit().toPlainString());
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        row.setGeneratedId(keys.getLong(1));
+                    }
+                }
+            }
         }
     }
 
     @Override
     public void deleteInvestments(UUID playerId) {
-        String sql = "DELETE FROM investments WHERE player_uuid = ?";
-
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, playerId.toString());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("[Investments] Error deleting SQLite investments for " + playerId + ": " + e.getMessage());
+        synchronized (writer) {
+            try {
+                PreparedStatement ps = writer.prepare(DELETE_PLAYER_INVESTMENTS_SQL);
+                ps.setString(1, playerId.toString());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                writer.close();
+                logger.severe("[Investments] Error deleting SQLite investments for " + playerId + ": " + e.getMessage());
+            }
         }
     }
 
     @Override
     public void close() {
-        // Nothing to close; we use per-operation connections
+        if (reader != null) {
+            synchronized (reader) {
+                reader.close();
+            }
+        }
+        if (writer != null) {
+            synchronized (writer) {
+                writer.close();
+            }
+        }
     }
 }
@@ -2,13 +2,24 @@ package com.jamplifier.investments.util;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Locale;
 
 public final class AmountUtil {
 
     private AmountUtil() {
     }
 
+    private static final BigDecimal THOUSAND = BigDecimal.valueOf(1_000L);
+    private static final BigDecimal MILLION = BigDecimal.valueOf(1_000_000L);
+    private static final BigDecimal BILLION = BigDecimal.valueOf(1_000_000_000L);
+    private static final BigDecimal TRILLION = BigDecimal.valueOf(1_000_000_000_000L);
+
+    // below this, |value| in cents fits a long and the fast path is exact
+    private static final long FAST_LONG_LIMIT = Long.MAX_VALUE / 100L;
+    private static final BigDecimal FAST_LIMIT = BigDecimal.valueOf(FAST_LONG_LIMIT);
+
+    // formatting only ever appends to it, then copies it out
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(24));
+
     /**
      * Parse an amount string that can be:
      *  - plain number: "10000"
@@ -18,41 +29,86 @@ public final class AmountUtil {
      *  k / K = thousand (1,000)
      *  m / M = million (1,000,000)
      *  b / B = billion (1,000,000,000)
+     *  t / T = trillion (1,000,000,000,000)
      *
-     * Returns null if invalid or <= 0.
+     * Returns null if invalid, <= 0, or too large to hold: amounts are kept
+     * in micros in a long, so about 9.22t is the most (see {@link MoneyUnits}).
      */
     public static BigDecimal parseAmount(String input) {
         if (input == null) return null;
-        String s = input.trim().toLowerCase(Locale.ROOT);
-        if (s.isEmpty()) return null;
 
-        BigDecimal multiplier = BigDecimal.ONE;
-
-        char last = s.charAt(s.length() - 1);
-        switch (last) {
-            case 'k':
-                multiplier = BigDecimal.valueOf(1_000L);
-                s = s.substring(0, s.length() - 1);
-                break;
-            case 'm':
-                multiplier = BigDecimal.valueOf(1_000_000L);
-                s = s.substring(0, s.length() - 1);
-                break;
-            case 'b':
-                multiplier = BigDecimal.valueOf(1_000_000_000L);
-                s = s.substring(0, s.length() - 1);
-                break;
+        // same bounds as trim(), without the copies
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') start++;
+        while (end > start && input.charAt(end - 1) <= ' ') end--;
+        if (start == end) return null;
+
+        BigDecimal multiplier = null;
+        switch (input.charAt(end - 1)) {
+            case 'k': case 'K': multiplier = THOUSAND; break;
+            case 'm': case 'M': multiplier = MILLION; break;
+            case 'b': case 'B': multiplier = BILLION; break;
+            case 't': case 'T': multiplier = TRILLION; break;
             default:
                 // no suffix
         }
+        if (multiplier != null) {
+            end--;
+            while (end > start && input.charAt(end - 1) <= ' ') end--;
+        }
 
-        try {
-            BigDecimal base = new BigDecimal(s.trim());
-            BigDecimal result = base.multiply(multiplier);
-            if (result.compareTo(BigDecimal.ZERO) <= 0) {
-                return null;
+        BigDecimal base = parseDecimal(input, start, end);
+        if (base == null) {
+            return null;
+        }
+
+        BigDecimal result = multiplier != null ? base.multiply(multiplier) : base;
+        if (result.compareTo(BigDecimal.ZERO) <= 0 || !MoneyUnits.fits(result)) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * {@code new BigDecimal(input.substring(start, end))}, or null if that
+     * would throw. Plain digits with an optional '+' and '.' are read
+     * directly; anything else (exponents, long inputs) goes through the
+     * BigDecimal parser.
+     */
+    private static BigDecimal parseDecimal(String input, int start, int end) {
+        int i = start;
+        if (i < end && input.charAt(i) == '+') i++;
+
+        long unscaled = 0L;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean simple = true;
+
+        for (; i < end; i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 18) {
+                    simple = false;
+                    break;
+                }
+                unscaled = unscaled * 10L + (c - '0');
+                if (dot) scale++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                simple = false;
+                break;
             }
-            return result;
+        }
+
+        if (simple && digits > 0) {
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+
+        try {
+            return new BigDecimal(input.substring(start, end));
         } catch (NumberFormatException e) {
             return null;
         }
@@ -65,44 +121,25 @@ public final class AmountUtil {
      *  1_200_000          -> "1.2M"
      *  3_450_000_000      -> "3.45B"
      *  7_890_000_000_000  -> "7.89T"
+     *
+     * Always truncated (never rounded) to 2 decimals, trailing zeros dropped.
      */
     public static String formatShort(BigDecimal value) {
         if (value == null) return "0";
 
         boolean negative = value.signum() < 0;
-        BigDecimal abs = value.abs();
-
-        BigDecimal thousand = new BigDecimal("1000");
-        BigDecimal million  = new BigDecimal("1000000");
-        BigDecimal billion  = new BigDecimal("1000000000");
-        BigDecimal trillion = new BigDecimal("1000000000000");
-
-        String suffix = "";
-        BigDecimal divisor = BigDecimal.ONE;
-
-        if (abs.compareTo(trillion) >= 0) {
-            suffix = "T";
-            divisor = trillion;
-        } else if (abs.compareTo(billion) >= 0) {
-            suffix = "B";
-            divisor = billion;
-        } else if (abs.compareTo(million) >= 0) {
-            suffix = "M";
-            divisor = million;
-        } else if (abs.compareTo(thousand) >= 0) {
-            suffix = "k";
-            divisor = thousand;
-        } else {
-            // < 1000 → just show up to 2 decimals
-            BigDecimal scaled = abs.setScale(2, RoundingMode.DOWN).stripTrailingZeros();
-            return (negative ? "-" : "") + scaled.toPlainString();
+        BigDecimal abs = negative ? value.negate() : value;
+
+        if (abs.compareTo(FAST_LIMIT) < 0) {
+            // longValue() drops the fraction, i.e. truncates to whole cents
+            return formatCents(abs.movePointRight(2).longValue(), negative);
         }
 
+        // beyond a long's worth of cents: same rules, in BigDecimal
         BigDecimal shortVal = abs
-                .divide(divisor, 2, RoundingMode.DOWN)
+                .divide(TRILLION, 2, RoundingMode.DOWN)
                 .stripTrailingZeros();
-
-        return (negative ? "-" : "") + shortVal.toPlainString() + suffix;
+        return (negative ? "-" : "") + shortVal.toPlainString() + "T";
     }
 
     public static String formatShort(double value) {
@@ -110,6 +147,61 @@ public final class AmountUtil {
     }
 
     public static String formatShort(long value) {
+        if (value > -FAST_LONG_LIMIT && value < FAST_LONG_LIMIT) {
+            return formatCents(Math.abs(value) * 100L, value < 0);
+        }
         return formatShort(BigDecimal.valueOf(value));
     }
+
+    /** Same as {@code formatShort(MoneyUnits.toBigDecimal(micros))}, without the BigDecimal. */
+    public static String formatShortMicros(long micros) {
+        if (micros == Long.MIN_VALUE) {
+            return formatShort(MoneyUnits.toBigDecimal(micros));
+        }
+        return formatCents(Math.abs(micros) / MoneyUnits.CENT, micros < 0);
+    }
+
+    /** {@code cents} is the absolute value, already truncated to whole cents. */
+    private static String formatCents(long cents, boolean negative) {
+        long divisor;
+        char suffix;
+        if (cents >= 100_000_000_000_000L) {
+            divisor = 1_000_000_000_000L;
+            suffix = 'T';
+        } else if (cents >= 100_000_000_000L) {
+            divisor = 1_000_000_000L;
+            suffix = 'B';
+        } else if (cents >= 100_000_000L) {
+            divisor = 1_000_000L;
+            suffix = 'M';
+        } else if (cents >= 100_000L) {
+            divisor = 1_000L;
+            suffix = 'k';
+        } else {
+            // < 1000 → just show up to 2 decimals
+            divisor = 1L;
+            suffix = 0;
+        }
+
+        // hundredths of the shown unit, truncated
+        long hundredths = cents / divisor;
+        long whole = hundredths / 100L;
+        int fraction = (int) (hundredths % 100L);
+
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        if (negative) sb.append('-');
+        sb.append(whole);
+        if (fraction != 0) {
+            sb.append('.');
+            if (fraction % 10 == 0) {
+                sb.append(fraction / 10);
+            } else {
+                if (fraction < 10) sb.append('0');
+                sb.append(fraction);
+            }
+        }
+        if (suffix != 0) sb.append(suffix);
+        return sb.toString();
+    }
 }
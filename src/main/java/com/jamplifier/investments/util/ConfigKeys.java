@@ -7,18 +7,48 @@ public final class ConfigKeys {
 
     // Storage
     public static final String STORAGE_TYPE = "storage-type";
+    public static final String WRITE_BEHIND_ENABLED = "storage.write-behind.enabled";
+    public static final String WRITE_BEHIND_FLUSH_INTERVAL_MILLIS = "storage.write-behind.flush-interval-millis";
+    public static final String WRITE_BEHIND_FLUSH_THRESHOLD = "storage.write-behind.flush-threshold";
+    public static final String WRITE_BEHIND_BATCH_SIZE = "storage.write-behind.batch-size";
+    public static final String WRITE_BEHIND_SHUTDOWN_TIMEOUT_SECONDS = "storage.write-behind.shutdown-timeout-seconds";
+
+    // Profile cache
+    public static final String CACHE_MAX_SIZE = "storage.cache.max-size";
+    public static final String CACHE_IDLE_MINUTES = "storage.cache.idle-minutes";
+    public static final String CACHE_EVICT_ON_QUIT = "storage.cache.evict-on-quit";
+    public static final String CACHE_SWEEP_SECONDS = "storage.cache.sweep-seconds";
 
     // Interest settings
     public static final String INTEREST_RATE_PERCENT = "interest.rate-percent";
     public static final String INTEREST_INTERVAL_MINUTES = "interest.interval-minutes";
+    public static final String INTEREST_MODE = "interest.mode";
+    public static final String INTEREST_SPREAD_TICKS = "interest.scheduler.spread-ticks";
+    public static final String INTEREST_TICK_BUDGET_MICROS = "interest.scheduler.tick-budget-micros";
+    public static final String INTEREST_ASYNC_ACCRUAL = "interest.scheduler.async-accrual";
+    public static final String INTEREST_ASYNC_THREADS = "interest.scheduler.async-threads";
+
+    // Server-wide stats
+    public static final String STATS_RECONCILE_MINUTES = "stats.reconcile-minutes";
 
     // Max investments per permission
     public static final String MAX_INVEST_PERMISSIONS = "max-invest-permissions";
+    public static final String PERMISSION_CACHE_TTL_SECONDS = "permission-cache.ttl-seconds";
 
     // Auto-collect
     public static final String AUTOCOLLECT_ENABLED = "autocollect.enabled";
     public static final String AUTOCOLLECT_PERMISSION = "autocollect.permission";
+    // PlaceholderAPI
+    public static final String PLACEHOLDER_LOADING_TEXT = "placeholders.loading-text";
+    public static final String PLACEHOLDER_RANK_EMPTY_TEXT = "placeholders.rank-empty-text";
+    public static final String PLACEHOLDER_OFFLINE_CACHE_SIZE = "placeholders.offline.cache-size";
+    public static final String PLACEHOLDER_OFFLINE_REFRESH_SECONDS = "placeholders.offline.refresh-seconds";
+
     // Min invest amount
     public static final String MIN_INVEST_AMOUNT = "min-invest-amount";
+    public static final String DEFAULT_MAX_INVEST_AMOUNT = "default-max-invest-amount";
+
+    // Chat input options
+    public static final String PRE_SELECTED_INVESTMENTS = "pre-selected-investments";
 
 }
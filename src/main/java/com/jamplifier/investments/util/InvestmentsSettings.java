@@ -0,0 +1,130 @@
+package com.jamplifier.investments.util;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The config.yml values read on hot paths (invest, menus, chat input,
+ * placeholders), parsed once.
+ *
+ * Immutable: {@code InvestmentsPlugin} builds a new one on every reload and
+ * publishes it through a volatile field, so a reader on any thread sees
+ * either the old settings or the new ones, never a mix.
+ */
+public final class InvestmentsSettings {
+
+    private final BigDecimal minInvestAmount;
+    private final BigDecimal defaultMaxInvestAmount;
+    private final BigDecimal interestRatePercent;
+    private final String autocollectPermission;
+    private final Map<String, BigDecimal> preSelectedInvestments;
+    private final String preSelectedOptionsText;
+    private final Map<String, Integer> maxInvestPermissions;
+    private final long permissionCacheTtlMillis;
+    private final String placeholderLoadingText;
+    private final String placeholderRankEmptyText;
+
+    private InvestmentsSettings(FileConfiguration cfg) {
+        this.minInvestAmount = BigDecimal.valueOf(cfg.getDouble(ConfigKeys.MIN_INVEST_AMOUNT, 10000.0D));
+
+        // 0 or negative means "no cap"
+        double defaultMax = cfg.getDouble(ConfigKeys.DEFAULT_MAX_INVEST_AMOUNT, 0.0D);
+        this.defaultMaxInvestAmount = defaultMax > 0 ? BigDecimal.valueOf(defaultMax) : BigDecimal.ZERO;
+
+        this.interestRatePercent = BigDecimal.valueOf(cfg.getDouble(ConfigKeys.INTEREST_RATE_PERCENT, 1.0D));
+        this.autocollectPermission = cfg.getString(ConfigKeys.AUTOCOLLECT_PERMISSION, "investments.autocollect");
+
+        Map<String, BigDecimal> options = new LinkedHashMap<>();
+        ConfigurationSection pre = cfg.getConfigurationSection(ConfigKeys.PRE_SELECTED_INVESTMENTS);
+        if (pre != null) {
+            for (String key : new TreeSet<>(pre.getKeys(false))) { // sorted keys "1","2","3"
+                double val = pre.getDouble(key, -1.0D);
+                if (val > 0) {
+                    options.put(key, BigDecimal.valueOf(val));
+                }
+            }
+        }
+        this.preSelectedInvestments = Collections.unmodifiableMap(options);
+
+        List<String> parts = new ArrayList<>(options.size());
+        for (Map.Entry<String, BigDecimal> e : options.entrySet()) {
+            // 1 = 10k, 2 = 20k, 3 = 50k
+            parts.add(e.getKey() + " = " + AmountUtil.formatShort(e.getValue()));
+        }
+        this.preSelectedOptionsText = parts.isEmpty() ? "none" : String.join(", ", parts);
+
+        Map<String, Integer> limits = new HashMap<>();
+        ConfigurationSection perms = cfg.getConfigurationSection(ConfigKeys.MAX_INVEST_PERMISSIONS);
+        if (perms != null) {
+            for (String perm : perms.getKeys(false)) {
+                int value = perms.getInt(perm, 0);
+                if (value > 0) {
+                    limits.put(perm, value);
+                }
+            }
+        }
+        this.maxInvestPermissions = Collections.unmodifiableMap(limits);
+        this.permissionCacheTtlMillis = Math.max(0L, cfg.getLong(ConfigKeys.PERMISSION_CACHE_TTL_SECONDS, 30L)) * 1000L;
+
+        this.placeholderLoadingText = cfg.getString(ConfigKeys.PLACEHOLDER_LOADING_TEXT, "...");
+        this.placeholderRankEmptyText = cfg.getString(ConfigKeys.PLACEHOLDER_RANK_EMPTY_TEXT, "-");
+    }
+
+    public static InvestmentsSettings load(FileConfiguration cfg) {
+        return new InvestmentsSettings(cfg);
+    }
+
+    public BigDecimal getMinInvestAmount() {
+        return minInvestAmount;
+    }
+
+    /** Cap on a player's total invested amount; ZERO means no cap. */
+    public BigDecimal getDefaultMaxInvestAmount() {
+        return defaultMaxInvestAmount;
+    }
+
+    public BigDecimal getInterestRatePercent() {
+        return interestRatePercent;
+    }
+
+    public String getAutocollectPermission() {
+        return autocollectPermission;
+    }
+
+    /** Amount for a pre-selected option number typed in chat, or null. */
+    public BigDecimal getPreSelectedInvestment(String option) {
+        return preSelectedInvestments.get(option);
+    }
+
+    /** e.g. "1 = 10k, 2 = 20k", or "none". */
+    public String getPreSelectedOptionsText() {
+        return preSelectedOptionsText;
+    }
+
+    /** Permission -> max simultaneous investments. */
+    public Map<String, Integer> getMaxInvestPermissions() {
+        return maxInvestPermissions;
+    }
+
+    /** How long resolved permission limits stay cached when nothing tells us they changed. */
+    public long getPermissionCacheTtlMillis() {
+        return permissionCacheTtlMillis;
+    }
+
+    public String getPlaceholderLoadingText() {
+        return placeholderLoadingText;
+    }
+
+    public String getPlaceholderRankEmptyText() {
+        return placeholderRankEmptyText;
+    }
+}
@@ -0,0 +1,120 @@
+package com.jamplifier.investments.util;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A messages.yml / gui.yml line, parsed once.
+ *
+ * The text is split into literal segments and {@code %name%} slots, and the
+ * literals are color-translated up front. Rendering is then one pass over
+ * the segments: no regex, no repeated String.replace. Placeholder values
+ * are still color-translated, as before, but only if they contain a '&'.
+ * A placeholder with no value in the map is left as written.
+ */
+public final class MessageTemplate {
+
+    public static final MessageTemplate EMPTY = new MessageTemplate(new String[] {""}, new String[0], 0);
+
+    // literals[i] comes before slots[i]; the last literal follows the last slot
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, String[] slots, int literalLength) {
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+
+    public static MessageTemplate compile(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(raw.length());
+
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            int end = c == '%' ? raw.indexOf('%', i + 1) : -1;
+            if (end > i + 1 && isName(raw, i + 1, end)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(raw.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        String[] colored = new String[literals.size()];
+        int length = 0;
+        for (int j = 0; j < colored.length; j++) {
+            colored[j] = MessageUtils.color(literals.get(j));
+            length += colored[j].length();
+        }
+        return new MessageTemplate(colored, slots.toArray(new String[0]), length);
+    }
+
+    /** Compile each line of {@code raw}, split on a literal backslash-n. */
+    public static MessageTemplate[] compileLines(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return new MessageTemplate[0];
+        }
+
+        List<MessageTemplate> lines = new ArrayList<>();
+        int start = 0;
+        int split;
+        while ((split = raw.indexOf("\\n", start)) >= 0) {
+            lines.add(compile(raw.substring(start, split)));
+            start = split + 2;
+        }
+        lines.add(compile(raw.substring(start)));
+        return lines.toArray(new MessageTemplate[0]);
+    }
+
+    private static boolean isName(String raw, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = raw.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** True if the template has no placeholders, i.e. it always renders the same. */
+    public boolean isConstant() {
+        return slots.length == 0;
+    }
+
+    public String render(Map<String, String> placeholders) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder out = new StringBuilder(literalLength + slots.length * 8);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+
+            String value = placeholders != null ? placeholders.get(slots[i]) : null;
+            if (value == null) {
+                out.append('%').append(slots[i]).append('%');
+            } else if (value.indexOf('&') >= 0) {
+                out.append(ChatColor.translateAlternateColorCodes('&', value));
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+        return out.toString();
+    }
+}
@@ -7,6 +7,8 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,6 +16,7 @@ public final class MessageUtils {
 
     private static InvestmentsPlugin plugin;
     private static FileConfiguration messages;
+    private static volatile Map<String, MessageTemplate[]> compiled = Collections.emptyMap();
 
     private MessageUtils() {
     }
@@ -35,7 +38,12 @@ public final class MessageUtils {
             plugin.saveResource("messages.yml", false);
         }
 
-        messages = YamlConfiguration.loadConfiguration(file);
+        load(YamlConfiguration.loadConfiguration(file));
+    }
+
+    private static void load(FileConfiguration config) {
+        messages = config;
+        compile();
     }
 
     public static String color(String input) {
@@ -43,9 +51,29 @@ public final class MessageUtils {
         return ChatColor.translateAlternateColorCodes('&', input);
     }
 
-    private static String getRaw(String key) {
-        if (messages == null) return "";
-        return messages.getString(key, "");
+    /**
+     * Every message, compiled once per load. Plain strings are split on
+     * {@code \n} and get {@code <prefix>} filled in; lists are one line per
+     * entry, used as written.
+     */
+    private static void compile() {
+        Map<String, MessageTemplate[]> map = new HashMap<>();
+        String prefix = messages.getString("prefix", "");
+
+        for (String key : messages.getKeys(true)) {
+            if (messages.isList(key)) {
+                List<String> lines = messages.getStringList(key);
+                MessageTemplate[] out = new MessageTemplate[lines.size()];
+                for (int i = 0; i < out.length; i++) {
+                    out[i] = MessageTemplate.compile(lines.get(i));
+                }
+                map.put(key, out);
+            } else if (messages.isString(key)) {
+                map.put(key, MessageTemplate.compileLines(messages.getString(key).replace("<prefix>", prefix)));
+            }
+        }
+
+        compiled = map;
     }
 
     public static void send(CommandSender sender, String key) {
@@ -55,51 +83,18 @@ public final class MessageUtils {
     public static void send(CommandSender sender, String key, Map<String, String> placeholders) {
         if (sender == null) return;
 
-        String raw = getRaw(key);
-        if (raw == null || raw.isEmpty()) {
+        MessageTemplate[] lines = compiled.get(key);
+        if (lines == null) {
             return;
         }
 
-        String prefix = messages.getString("prefix", "");
-        String result = raw.replace("<prefix>", prefix);
-
-        if (placeholders != null) {
-            for (Map.Entry<String, String> e : placeholders.entrySet()) {
-                result = result.replace("%" + e.getKey() + "%", e.getValue());
-            }
-        }
-
-        // support \n as newline
-        for (String line : result.split("\\\\n")) {
-            sender.sendMessage(color(line));
+        for (MessageTemplate line : lines) {
+            sender.sendMessage(line.render(placeholders));
         }
-        
     }
-    public static void sendMulti(org.bukkit.command.CommandSender sender,
-            String path,
-            Map<String, String> placeholders) {
-if (sender == null) return;
-
-// Try to read a string list first
-java.util.List<String> lines = messages.getStringList(path);
-if (lines == null || lines.isEmpty()) {
-// Fallback to single-line if it's not a list
-send(sender, path, placeholders);
-return;
-}
 
-for (String raw : lines) {
-String msg = raw;
-if (placeholders != null) {
-for (Map.Entry<String, String> e : placeholders.entrySet()) {
-msg = msg.replace("%" + e.getKey() + "%", e.getValue());
-}
-}
-sender.sendMessage(color(msg));
-}
-}
-    
-    
-    
-    
+    /** Same as {@link #send}; kept for messages written as a list. */
+    public static void sendMulti(CommandSender sender, String path, Map<String, String> placeholders) {
+        send(sender, path, placeholders);
+    }
 }
@@ -0,0 +1,60 @@
+package com.jamplifier.investments.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers.
+ *
+ * Amounts are held internally as a long number of micro-units
+ * (1 unit = 1_000_000 micros). BigDecimal is only used at the edges
+ * (storage, commands, display).
+ */
+public final class MoneyUnits {
+
+    public static final int SCALE = 6;
+    public static final long ONE = 1_000_000L;
+    /** One cent (0.01) in micros. Interest is always truncated to whole cents. */
+    public static final long CENT = 10_000L;
+
+    private static final BigDecimal MAX = BigDecimal.valueOf(Long.MAX_VALUE, SCALE);
+    private static final BigDecimal MIN = BigDecimal.valueOf(Long.MIN_VALUE, SCALE);
+
+    private MoneyUnits() {
+    }
+
+    /**
+     * Converts a BigDecimal to micros. Digits beyond 6 decimals are truncated,
+     * values outside the long range are clamped.
+     */
+    public static long fromBigDecimal(BigDecimal value) {
+        if (value == null) return 0L;
+        if (value.compareTo(MAX) >= 0) return Long.MAX_VALUE;
+        if (value.compareTo(MIN) <= 0) return Long.MIN_VALUE;
+        return value.setScale(SCALE, RoundingMode.DOWN).unscaledValue().longValue();
+    }
+
+    /** Converts micros back to a BigDecimal with at least 2 decimals (e.g. "150.00"). */
+    public static BigDecimal toBigDecimal(long micros) {
+        BigDecimal value = BigDecimal.valueOf(micros, SCALE).stripTrailingZeros();
+        if (value.scale() < 2) {
+            value = value.setScale(2, RoundingMode.UNNECESSARY);
+        }
+        return value;
+    }
+
+    /** @return true if the value can be held as micros without clamping. */
+    public static boolean fits(BigDecimal value) {
+        return value != null && value.compareTo(MAX) <= 0 && value.compareTo(MIN) >= 0;
+    }
+
+    /** Addition that clamps instead of overflowing. */
+    public static long add(long a, long b) {
+        long r = a + b;
+        // overflow only if both operands have the same sign and the result's sign differs
+        if (((a ^ r) & (b ^ r)) < 0) {
+            return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return r;
+    }
+}